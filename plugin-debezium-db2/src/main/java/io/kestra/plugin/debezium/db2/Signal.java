@@ -0,0 +1,43 @@
+package io.kestra.plugin.debezium.db2;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.plugin.debezium.AbstractDebeziumSignal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Request an incremental snapshot of Db2 tables from a running capture",
+    description = "Queues a Debezium signal for the capture task or trigger using the same `stateName`: the capture reads the selected tables " +
+        "in chunks while streaming continues, without resetting its state. A realtime trigger picks the signal up within seconds, " +
+        "a capture task or polling trigger on its next run."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Backfill one table of a running Db2 realtime trigger.",
+            full = true,
+            code = """
+                id: db2_backfill
+                namespace: company.team
+
+                tasks:
+                  - id: signal
+                    type: io.kestra.plugin.debezium.db2.Signal
+                    flowId: db2_realtime
+                    dataCollections:
+                      - MYSCHEMA.ORDERS
+                    filter: "UPDATED_AT > '2024-01-01'"
+                """
+        )
+    }
+)
+public class Signal extends AbstractDebeziumSignal {
+}
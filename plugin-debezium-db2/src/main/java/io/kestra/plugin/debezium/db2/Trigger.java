@@ -90,6 +90,38 @@ public class Trigger extends AbstractDebeziumTrigger implements Db2Interface, Ab
             .excludedColumns(this.excludedColumns)
             .properties(this.properties)
             .stateName(this.stateName)
+            .tasksMax(this.tasksMax)
+            .recordProcessingThreads(this.recordProcessingThreads)
+            .recordProcessingOrder(this.recordProcessingOrder)
+            .conversionParallelism(this.conversionParallelism)
+            .writerBufferSize(this.writerBufferSize)
+            .writerThreads(this.writerThreads)
+            .memoryPauseThreshold(this.memoryPauseThreshold)
+            .memoryResumeThreshold(this.memoryResumeThreshold)
+            .maxBufferedBytes(this.maxBufferedBytes)
+            .adaptiveBatching(this.adaptiveBatching)
+            .maxRowsPerSecond(this.maxRowsPerSecond)
+            .maxBytesPerSecond(this.maxBytesPerSecond)
+            .adaptiveThrottling(this.adaptiveThrottling)
+            .snapshotMaxThreads(this.snapshotMaxThreads)
+            .snapshotTableOrder(this.snapshotTableOrder)
+            .snapshotStrategy(this.snapshotStrategy)
+            .incrementalSnapshotChunkSize(this.incrementalSnapshotChunkSize)
+            .signalDataCollection(this.signalDataCollection)
+            .snapshotNewTables(this.snapshotNewTables)
+            .snapshotFilters(this.snapshotFilters)
+            .projections(this.projections)
+            .rowFilter(this.rowFilter)
+            .sparseUpdates(this.sparseUpdates)
+            .compaction(this.compaction)
+            .materializedState(this.materializedState)
+            .materializedSnapshot(this.materializedSnapshot)
+            .materializedStateMaxSegments(this.materializedStateMaxSegments)
+            .outputSort(this.outputSort)
+            .sortBufferSize(this.sortBufferSize)
+            .partitions(this.partitions)
+            .manifest(this.manifest)
+            .aggregation(this.aggregation)
             .maxRecords(this.maxRecords)
             .maxDuration(this.maxDuration)
             .maxWait(this.maxWait)
@@ -1,8 +1,10 @@
 package io.kestra.plugin.debezium.mongodb;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Metric;
@@ -11,6 +13,7 @@ import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.plugin.debezium.AbstractDebeziumTask;
+import io.kestra.plugin.debezium.models.SnapshotFilter;
 
 import io.debezium.connector.mongodb.MongoDbConnector;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -144,4 +147,22 @@ public class Capture extends AbstractDebeziumTask implements MongodbInterface {
         return props;
     }
 
+    @Override
+    protected void snapshotFilterProperties(Properties props, List<SnapshotFilter> filters) {
+        filters.stream()
+            .filter(filter -> filter.getColumns() != null && !filter.getColumns().isEmpty())
+            .findFirst()
+            .ifPresent(filter -> {
+                throw new IllegalArgumentException("Snapshot filters can't select the fields of a MongoDB collection, found on '" + filter.getTable() + "'");
+            });
+
+        var filtered = filters.stream().filter(filter -> filter.getWhere() != null && !filter.getWhere().isBlank()).toList();
+        if (filtered.isEmpty()) {
+            return;
+        }
+
+        props.setProperty("snapshot.collection.filter.overrides", filtered.stream().map(SnapshotFilter::getTable).collect(Collectors.joining(",")));
+
+        filtered.forEach(filter -> props.setProperty("snapshot.collection.filter.overrides." + filter.getTable(), filter.getWhere()));
+    }
 }
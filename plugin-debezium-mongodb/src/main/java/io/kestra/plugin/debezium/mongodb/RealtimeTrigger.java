@@ -102,6 +102,27 @@ public class RealtimeTrigger extends AbstractDebeziumRealtimeTrigger implements
             .excludedColumns(this.excludedColumns)
             .properties(this.properties)
             .stateName(this.stateName)
+            .tasksMax(this.tasksMax)
+            .recordProcessingThreads(this.recordProcessingThreads)
+            .recordProcessingOrder(this.recordProcessingOrder)
+            .conversionParallelism(this.conversionParallelism)
+            .memoryPauseThreshold(this.memoryPauseThreshold)
+            .memoryResumeThreshold(this.memoryResumeThreshold)
+            .maxBufferedBytes(this.maxBufferedBytes)
+            .adaptiveBatching(this.adaptiveBatching)
+            .maxRowsPerSecond(this.maxRowsPerSecond)
+            .maxBytesPerSecond(this.maxBytesPerSecond)
+            .adaptiveThrottling(this.adaptiveThrottling)
+            .snapshotMaxThreads(this.snapshotMaxThreads)
+            .snapshotTableOrder(this.snapshotTableOrder)
+            .snapshotStrategy(this.snapshotStrategy)
+            .incrementalSnapshotChunkSize(this.incrementalSnapshotChunkSize)
+            .signalDataCollection(this.signalDataCollection)
+            .snapshotNewTables(this.snapshotNewTables)
+            .snapshotFilters(this.snapshotFilters)
+            .projections(this.projections)
+            .rowFilter(this.rowFilter)
+            .sparseUpdates(this.sparseUpdates)
             .snapshotMode(this.snapshotMode)
             .connectionString(this.connectionString)
             .build();
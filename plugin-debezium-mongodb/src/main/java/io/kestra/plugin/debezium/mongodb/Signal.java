@@ -0,0 +1,43 @@
+package io.kestra.plugin.debezium.mongodb;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.plugin.debezium.AbstractDebeziumSignal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Request an incremental snapshot of MongoDB tables from a running capture",
+    description = "Queues a Debezium signal for the capture task or trigger using the same `stateName`: the capture reads the selected tables " +
+        "in chunks while streaming continues, without resetting its state. A realtime trigger picks the signal up within seconds, " +
+        "a capture task or polling trigger on its next run."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Backfill one table of a running MongoDB realtime trigger.",
+            full = true,
+            code = """
+                id: mongodb_backfill
+                namespace: company.team
+
+                tasks:
+                  - id: signal
+                    type: io.kestra.plugin.debezium.mongodb.Signal
+                    flowId: mongodb_realtime
+                    dataCollections:
+                      - inventory.orders
+                    filter: '{ "status": "active" }'
+                """
+        )
+    }
+)
+public class Signal extends AbstractDebeziumSignal {
+}
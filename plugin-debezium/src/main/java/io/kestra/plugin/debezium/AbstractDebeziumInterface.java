@@ -1,9 +1,11 @@
 package io.kestra.plugin.debezium;
 
+import java.util.List;
 import java.util.Map;
 
 import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.property.Property;
+import io.kestra.plugin.debezium.models.SnapshotFilter;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -160,4 +162,179 @@ public interface AbstractDebeziumInterface {
     @NotNull
     @PluginProperty(group = "main")
     Property<String> getStateName();
+
+    @Schema(
+        title = "The maximum number of tasks the connector may use",
+        description = "Only connectors able to split their work honor it, for example MongoDB (one task per replica set or shard) or SQL Server (one task per database). " +
+            "Each task delivers its batches on its own thread, so captures bound by record conversion scale across cores."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Integer> getTasksMax();
+
+    @Schema(
+        title = "The number of threads the engine uses to prepare records before they are consumed",
+        description = "Defaults to the number of available cores."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Integer> getRecordProcessingThreads();
+
+    @Schema(
+        title = "The order in which the engine hands over records processed in parallel",
+        description = " Possible settings are:\n" +
+            "- `ORDERED`: Records of a task are consumed in the order of the source, so changes of a same key are never reordered.\n" +
+            "- `UNORDERED`: Records are consumed as soon as they are ready, which gives more throughput but may reorder changes of a same key."
+    )
+    @PluginProperty(group = "advanced")
+    Property<AbstractDebeziumTask.RecordProcessingOrder> getRecordProcessingOrder();
+
+    @Schema(
+        title = "The number of threads converting and formatting each batch of records",
+        description = "Conversion is fanned out to a pool of this size and the results are re-sequenced, so records are still written and committed in source order. " +
+            "Defaults to `1`, converting on the engine thread."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Integer> getConversionParallelism();
+
+    @Schema(
+        title = "The heap occupancy of the worker, between 0 and 1, above which the capture is paused",
+        description = "The occupancy is measured after each garbage collection, so it only reflects live data. " +
+            "While paused, the capture stops consuming records and the engine stops reading the source, which protects the other flows running on the same worker. " +
+            "Memory governance is disabled when not set."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Double> getMemoryPauseThreshold();
+
+    @Schema(
+        title = "The heap occupancy of the worker, between 0 and 1, under which a paused capture resumes",
+        description = "Defaults to `memoryPauseThreshold` minus 0.15."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Double> getMemoryResumeThreshold();
+
+    @Schema(
+        title = "The maximum number of bytes of records buffered by the capture before it is paused",
+        description = "Records are counted from their reception until they are written, which bounds the backlog of `writerBufferSize`. Only applies with `memoryPauseThreshold`."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Long> getMaxBufferedBytes();
+
+    @Schema(
+        title = "Tune the engine batch and queue sizes from the previous runs",
+        description = "The fill ratio and processing time of the batches and the size of the records of a run set `max.batch.size`, `max.queue.size`, `max.queue.size.in.bytes` and `poll.interval.ms` for the next run, within safe bounds. " +
+            "The learned values are stored with the offsets in the KV Store. Values set in `properties` are never tuned."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Boolean> getAdaptiveBatching();
+
+    @Schema(
+        title = "The maximum number of rows per second read from the source",
+        description = "Applies to the snapshot and the streaming: the capture waits before consuming a batch that would exceed the rate, which stops the engine from reading the source."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Integer> getMaxRowsPerSecond();
+
+    @Schema(
+        title = "The maximum number of bytes per second read from the source",
+        description = "The size of the records is approximated from their structure. Applies like `maxRowsPerSecond`."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Long> getMaxBytesPerSecond();
+
+    @Schema(
+        title = "Lower the read rate when the source slows down",
+        description = "The time taken by the source to return full batches is tracked: when it rises above twice the fastest seen, the rate limit is cut by 30%, down to 10% of `maxRowsPerSecond` and `maxBytesPerSecond`, and grows back once the source recovers. " +
+            "Only applies with `maxRowsPerSecond` or `maxBytesPerSecond`."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Boolean> getAdaptiveThrottling();
+
+    @Schema(
+        title = "The number of threads reading tables in parallel during the initial snapshot",
+        description = "Each thread snapshots one table at a time. Records of the tables are then interleaved; with `splitTable` set to `TABLE`, each table is written to its own output file, with its own lock, so snapshot threads never contend on the output."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Integer> getSnapshotMaxThreads();
+
+    @Schema(
+        title = "The order in which tables are snapshotted, based on their estimated row count",
+        description = " Possible settings are:\n" +
+            "- `NONE`: The order of the table include list.\n" +
+            "- `LARGEST_FIRST`: Start with the largest tables, so the longest scans run in parallel with the others rather than last.\n" +
+            "- `SMALLEST_FIRST`: Start with the smallest tables, so most tables are available early."
+    )
+    @PluginProperty(group = "advanced")
+    Property<AbstractDebeziumTask.SnapshotTableOrder> getSnapshotTableOrder();
+
+    @Schema(
+        title = "How the initial snapshot is taken",
+        description = " Possible settings are:\n" +
+            "- `INITIAL`: The snapshot of the connector `snapshotMode`, taken at once: when interrupted, the next run starts it over.\n" +
+            "- `INCREMENTAL`: The first run skips the initial snapshot and requests a chunked incremental snapshot of the included tables, read alongside the streaming. " +
+            "The progress of the chunks is stored with the offsets, so an interrupted snapshot resumes from the last completed chunk of each table. " +
+            "Depending on the connector, incremental snapshots need a `signalDataCollection` to write their watermarks."
+    )
+    @PluginProperty(group = "advanced")
+    Property<AbstractDebeziumTask.SnapshotStrategy> getSnapshotStrategy();
+
+    @Schema(
+        title = "The number of rows read by each chunk of an incremental snapshot"
+    )
+    @PluginProperty(group = "advanced")
+    Property<Integer> getIncrementalSnapshotChunkSize();
+
+    @Schema(
+        title = "The fully-qualified name of the signaling table of the source",
+        description = "Used by incremental snapshots to write their watermarks, it must exist on the source and be captured by the connector."
+    )
+    @PluginProperty(group = "advanced")
+    Property<String> getSignalDataCollection();
+
+    @Schema(
+        title = "Snapshot the tables added to the include list",
+        description = "The include list is stored with the offsets: when tables are added to `includedTables` (or `includedCollections`) " +
+            "between two runs, an incremental snapshot of the added tables only is requested while the others keep streaming from their offsets. " +
+            "Without it, the added tables only receive their changes made from then on."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Boolean> getSnapshotNewTables();
+
+    @Schema(
+        title = "Filters of the initial snapshot, pushed down to the source",
+        description = "For each table, the columns and rows read by the snapshot: the database does the filtering and only ships the selected rows. " +
+            "Rendered as `snapshot.select.statement.overrides` on SQL databases and `snapshot.collection.filter.overrides` on MongoDB. " +
+            "Only the snapshot is filtered: the changes streamed afterwards are not."
+    )
+    @PluginProperty(group = "advanced")
+    Property<List<SnapshotFilter>> getSnapshotFilters();
+
+    @Schema(
+        title = "The fields of the output rows, by table",
+        description = "For each table, a regular expression matching its fully-qualified identifier as the entries of `includedTables`, the fields to keep in its rows: the columns, and the fields added to the rows " +
+            "like the `deleted`, key or `metadata` fields, nested fields being selected with a dot, e.g. `metadata.source.lsn`. " +
+            "The columns are selected before the conversion, so the other columns are never read. " +
+            "With the `WRAP` format, the columns are selected in `record`; the `RAW` format is not projected."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Map<String, List<String>>> getProjections();
+
+    @Schema(
+        title = "A condition on the rows to keep",
+        description = "Evaluated on each change event before its conversion, the other rows being dropped, e.g. `status = 'PAID' AND amount > 1000`. " +
+            "A column name reads the after image, or the before one for deletes; `before.`, `after.` and `source.` read the fields of the change event " +
+            "and `op` its operation (`c`, `r`, `u` or `d`). Supports `=`, `!=`, `<`, `<=`, `>`, `>=`, `IS [NOT] NULL`, `AND`, `OR`, `NOT`, parentheses, " +
+            "and `changed(column)`, true when an update changed the column. Date, time and timestamp columns are compared with ISO-8601 strings, " +
+            "e.g. `created_at >= '2024-01-31T12:00:00Z'`, timestamps without offset being UTC. Schema change events are not filtered."
+    )
+    @PluginProperty(group = "advanced")
+    Property<String> getRowFilter();
+
+    @Schema(
+        title = "Only output the changed columns of updates",
+        description = "With the `INLINE` and `WRAP` formats, the rows of updates only hold the primary key columns, the columns changed by the update " +
+            "and an `op` field set to `u`, along with the `deleted` and `metadata` fields when added; inserts and deletes stay whole. " +
+            "The changes are found by comparing the before and after images: updates without a before image, e.g. on PostgreSQL tables " +
+            "without `REPLICA IDENTITY FULL`, are kept whole."
+    )
+    @PluginProperty(group = "advanced")
+    Property<Boolean> getSparseUpdates();
 }
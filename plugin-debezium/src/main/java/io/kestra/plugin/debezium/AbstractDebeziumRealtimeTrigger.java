@@ -2,13 +2,16 @@ package io.kestra.plugin.debezium;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -18,10 +21,13 @@ import org.apache.kafka.connect.source.SourceRecord;
 import org.reactivestreams.Publisher;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.triggers.AbstractTrigger;
 import io.kestra.core.models.triggers.RealtimeTriggerInterface;
 import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.plugin.debezium.models.SnapshotFilter;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.utils.Hashing;
 import io.kestra.core.utils.Slugify;
@@ -91,6 +97,48 @@ public abstract class AbstractDebeziumRealtimeTrigger extends AbstractTrigger im
     @Builder.Default
     protected Property<String> stateName = Property.ofValue("debezium-state");
 
+    protected Property<Integer> tasksMax;
+
+    protected Property<Integer> recordProcessingThreads;
+
+    protected Property<AbstractDebeziumTask.RecordProcessingOrder> recordProcessingOrder;
+
+    protected Property<Integer> conversionParallelism;
+
+    protected Property<Double> memoryPauseThreshold;
+
+    protected Property<Double> memoryResumeThreshold;
+
+    protected Property<Long> maxBufferedBytes;
+
+    protected Property<Boolean> adaptiveBatching;
+
+    protected Property<Integer> maxRowsPerSecond;
+
+    protected Property<Long> maxBytesPerSecond;
+
+    protected Property<Boolean> adaptiveThrottling;
+
+    protected Property<Integer> snapshotMaxThreads;
+
+    protected Property<AbstractDebeziumTask.SnapshotTableOrder> snapshotTableOrder;
+
+    protected Property<AbstractDebeziumTask.SnapshotStrategy> snapshotStrategy;
+
+    protected Property<Integer> incrementalSnapshotChunkSize;
+
+    protected Property<String> signalDataCollection;
+
+    protected Property<Boolean> snapshotNewTables;
+
+    protected Property<List<SnapshotFilter>> snapshotFilters;
+
+    protected Property<Map<String, List<String>>> projections;
+
+    protected Property<String> rowFilter;
+
+    protected Property<Boolean> sparseUpdates;
+
     @Schema(
         title = "When to commit the offsets to the KV Store",
         description = """
@@ -102,6 +150,53 @@ public abstract class AbstractDebeziumRealtimeTrigger extends AbstractTrigger im
     @PluginProperty(group = "advanced")
     private Property<OffsetCommitMode> offsetsCommitMode = Property.ofValue(OffsetCommitMode.ON_STOP);
 
+    @Schema(
+        title = "The maximum number of consecutive in-process reconnects after an engine failure",
+        description = """
+            When the Debezium engine fails, it is restarted in place, reusing the offsets and schema history already restored on the worker instead of paying a full cold start.
+            Consecutive failures without any record delivered in between are counted; once this limit is exceeded, the error is propagated and the trigger goes through a full restart.
+            Set to `0` to disable in-process reconnects.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxReconnectAttempts = Property.ofValue(5);
+
+    @Schema(
+        title = "The delay before the first in-process reconnect",
+        description = "The delay doubles on each consecutive failure, up to `reconnectMaxDelay`, with a random jitter of up to half the delay."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Duration> reconnectInitialDelay = Property.ofValue(Duration.ofSeconds(1));
+
+    @Schema(
+        title = "The maximum delay between two in-process reconnects"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Duration> reconnectMaxDelay = Property.ofValue(Duration.ofMinutes(1));
+
+    @Schema(
+        title = "Coalesce changes of the same row within this window",
+        description = """
+            When set, changes are keyed by the record primary key and only the latest state of each key is emitted once its window expires, which creates a single execution for a row updated many times.
+            A pending delete is never replaced by a later update. Rows of tables without primary key are emitted right away.
+            Pending changes are emitted when the trigger stops; with `ON_EACH_BATCH`, offsets of changes still pending when the worker crashes may already be committed.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Duration> debounceWindow;
+
+    @Schema(
+        title = "The maximum number of keys pending in the debounce window",
+        description = "When reached, the oldest pending key is emitted before its window expires, which bounds the memory used by `debounceWindow`. " +
+            "With `memoryPauseThreshold`, all the pending keys are also emitted under memory pressure, before the capture is paused."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> debounceMaxKeys = Property.ofValue(10_000);
+
     @Builder.Default
     @Getter(AccessLevel.NONE)
     private final AtomicBoolean isActive = new AtomicBoolean(true);
@@ -119,9 +214,16 @@ public abstract class AbstractDebeziumRealtimeTrigger extends AbstractTrigger im
         var rOffsetsCommitMode = runContext.render(offsetsCommitMode).as(OffsetCommitMode.class).orElse(OffsetCommitMode.ON_STOP);
         var offsetFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.OFFSETS_DATA_FILE);
         var historyFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.DBHISTORY_DATA_FILE);
+        var rDebounceWindow = runContext.render(debounceWindow).as(Duration.class);
+        var rDebounceMaxKeys = runContext.render(debounceMaxKeys).as(Integer.class).orElse(10_000);
 
         return Flux.create(sink ->
         {
+            KeyDebouncer debouncer = rDebounceWindow
+                .map(window -> new KeyDebouncer(window, rDebounceMaxKeys, sink::next))
+                .orElse(null);
+            AtomicReference<Signals.Delivery> signals = new AtomicReference<>();
+
             try {
                 task.restoreState(runContext, offsetFile, historyFile);
 
@@ -131,50 +233,136 @@ public abstract class AbstractDebeziumRealtimeTrigger extends AbstractTrigger im
                     AbstractDebeziumTask.migrateHistoryFile(runContext.logger(), historyFile, identity.topicPrefix());
                 }
 
-                final Properties props = task.properties(runContext, offsetFile, historyFile);
-
-                ChangeConsumer changeConsumer = new ChangeConsumer(task, runContext, new AtomicInteger(), null, ZonedDateTime.now(), offsetFile, historyFile);
-
-                var engineBuilder = DebeziumEngine.create(Connect.class)
-                    .using(this.getClass().getClassLoader())
-                    .using(props)
-                    .notifying(
-                        (list, recordCommitter) ->
-                        {
-                            changeConsumer.handleBatch(list, recordCommitter, sink, rOffsetsCommitMode);
-                            if (rOffsetsCommitMode == OffsetCommitMode.ON_EACH_BATCH) {
-                                try {
-                                    saveOffsets(task, runContext, offsetFile, historyFile);
-                                } catch (IOException e) {
-                                    throw new RuntimeException(e);
+                final Properties props = task.engineProperties(runContext, offsetFile, historyFile);
+
+                ChangeConsumer changeConsumer = new ChangeConsumer(task, runContext, new AtomicInteger(), null, ZonedDateTime.now(), offsetFile, historyFile, props);
+
+                // signals sent while running are moved to the signal file of the engine, and removed from the queue once the state is saved
+                signals.set(new Signals.Delivery(
+                    runContext,
+                    task.signalsKvKey(runContext),
+                    Path.of(props.getProperty("signal.file", offsetFile.resolveSibling(Signals.SIGNAL_FILE).toString()))
+                ));
+                signals.get().drain();
+                var signalPoller = Signals.poll(runContext, signals.get());
+
+                var rMaxReconnectAttempts = runContext.render(maxReconnectAttempts).as(Integer.class).orElse(0);
+                var rReconnectInitialDelay = runContext.render(reconnectInitialDelay).as(Duration.class).orElse(Duration.ofSeconds(1));
+                var rReconnectMaxDelay = runContext.render(reconnectMaxDelay).as(Duration.class).orElse(Duration.ofMinutes(1));
+
+                // On failure the engine is rebuilt in place: the offsets and history files restored above stay on the
+                // working directory and are flushed by the engine, so a reconnect resumes from the last committed offset.
+                try {
+                    int failures = 0;
+                    Downtime downtime = new Downtime();
+                    while (isActive.get()) {
+                        AtomicReference<Throwable> engineError = new AtomicReference<>();
+                        AtomicBoolean delivered = new AtomicBoolean(false);
+
+                        // the reconnect only counts once the connector is back, not when the engine is rebuilt
+                        Runnable recovered = () -> downtime.recovered().ifPresent(duration -> {
+                            runContext.metric(Counter.of("reconnects", 1));
+                            runContext.metric(Timer.of("reconnect.downtime", duration));
+                        });
+                        Runnable onDelivered = () -> {
+                            delivered.set(true);
+                            recovered.run();
+                        };
+
+                        var engineBuilder = DebeziumEngine.create(Connect.class)
+                            .using(this.getClass().getClassLoader())
+                            .using(props)
+                            .notifying(
+                                (list, recordCommitter) ->
+                                {
+                                    onDelivered.run();
+                                    changeConsumer.handleBatch(list, recordCommitter, sink, rOffsetsCommitMode, debouncer);
+                                    if (rOffsetsCommitMode == OffsetCommitMode.ON_EACH_BATCH) {
+                                        try {
+                                            if (saveOffsets(task, runContext, offsetFile, historyFile) != null) {
+                                                signals.get().acknowledge();
+                                            }
+                                        } catch (IOException e) {
+                                            throw new RuntimeException(e);
+                                        }
+                                    }
+                                }
+                            )
+                            .using((success, message, engineFailure) ->
+                            {
+                                if (engineFailure != null) {
+                                    engineError.set(engineFailure);
                                 }
+                            })
+                            .using(new DebeziumEngine.ConnectorCallback() {
+                                @Override
+                                public void taskStarted() {
+                                    recovered.run();
+                                }
+                            });
+
+                        DebeziumEngine<ChangeEvent<SourceRecord, SourceRecord>> engine = engineBuilder.build();
+                        engineReference.set(engine);
+
+                        try {
+                            // stop() may have been called before the engine reference was set
+                            if (isActive.get()) {
+                                engine.run();
+                            }
+                        } finally {
+                            try {
+                                engine.close();
+                            } catch (IllegalStateException alreadyShutDown) {
+                                // engine was already closed by stop(); harmless on the publisher path.
                             }
                         }
-                    )
-                    .using((success, message, error) ->
-                    {
-                        if (error != null) {
+
+                        Throwable error = engineError.get();
+
+                        if (error == null || !isActive.get()) {
+                            break;
+                        }
+
+                        // only consecutive failures count: any record delivered since the last reconnect resets the budget
+                        failures = delivered.get() ? 1 : failures + 1;
+                        if (failures > rMaxReconnectAttempts) {
                             sink.error(error);
+                            break;
                         }
-                    });
 
-                DebeziumEngine<ChangeEvent<SourceRecord, SourceRecord>> engine = engineBuilder.build();
-                engineReference.set(engine);
-                try {
-                    engine.run();
-                } finally {
-                    try {
-                        engine.close();
-                    } catch (IllegalStateException alreadyShutDown) {
-                        // engine was already closed by stop(); harmless on the publisher path.
+                        downtime.failed();
+                        Duration delay = reconnectDelay(failures, rReconnectInitialDelay, rReconnectMaxDelay);
+                        runContext.logger().warn(
+                            "Debezium engine failed, reconnecting in {} (attempt {}/{}): {}",
+                            delay,
+                            failures,
+                            rMaxReconnectAttempts,
+                            error.getMessage()
+                        );
+
+                        // released by stop(), so a pending reconnect never delays the shutdown
+                        if (waitForTermination.await(delay.toMillis(), TimeUnit.MILLISECONDS)) {
+                            break;
+                        }
                     }
+                } finally {
+                    signalPoller.shutdownNow();
+                    changeConsumer.close();
                 }
             } catch (Exception e) {
                 sink.error(e);
             } finally {
+                if (debouncer != null) {
+                    debouncer.close();
+                    runContext.metric(Counter.of("debounced.records", debouncer.getSuperseded().get()));
+                    runContext.metric(Counter.of("debounced.pressure.flushes", debouncer.getPressureFlushes().get()));
+                }
+
                 if (rOffsetsCommitMode == OffsetCommitMode.ON_STOP) {
                     try {
-                        task.saveFinalState(runContext, offsetFile, historyFile);
+                        if (task.saveFinalState(runContext, offsetFile, historyFile) != null && signals.get() != null) {
+                            signals.get().acknowledge();
+                        }
                     } catch (IOException e) {
                         sink.error(new RuntimeException(e));
                     }
@@ -185,17 +373,59 @@ public abstract class AbstractDebeziumRealtimeTrigger extends AbstractTrigger im
         });
     }
 
-    private static void saveOffsets(AbstractDebeziumTask task, RunContext runContext, Path offsetFile, Path historyFile) throws IOException {
-        task.saveStateAtomically(runContext, offsetFile, historyFile);
+    /**
+     * Exponential backoff before the given reconnect attempt (starting at 1), capped at {@code maxDelay}.
+     * An "equal jitter" is applied: the result is picked uniformly between half the delay and the delay, so
+     * triggers failing together on the same source do not all reconnect at the same instant.
+     */
+    static Duration reconnectDelay(int attempt, Duration initialDelay, Duration maxDelay) {
+        long initial = Math.max(initialDelay.toMillis(), 1);
+        long max = Math.max(maxDelay.toMillis(), initial);
+
+        long delay = initial << Math.min(Math.max(attempt - 1, 0), 30);
+        if (delay <= 0 || delay > max) {
+            delay = max;
+        }
+
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+
+    /**
+     * The time the connector has been down, from its first failure to the first sign it is back: a started task or a
+     * delivered batch. Failures while reconnecting extend the same downtime.
+     */
+    static class Downtime {
+        private final AtomicReference<ZonedDateTime> failedAt = new AtomicReference<>();
+
+        void failed() {
+            failedAt.compareAndSet(null, ZonedDateTime.now());
+        }
+
+        /**
+         * @return the downtime that just ended, empty when the connector was not down
+         */
+        Optional<Duration> recovered() {
+            return Optional.ofNullable(failedAt.getAndSet(null)).map(failed -> Duration.between(failed, ZonedDateTime.now()));
+        }
+    }
+
+    private static String saveOffsets(AbstractDebeziumTask task, RunContext runContext, Path offsetFile, Path historyFile) throws IOException {
+        return task.saveStateAtomically(runContext, offsetFile, historyFile);
     }
 
     public static String computeKvStoreKey(RunContext runContext, String stateName, String filename, String taskRunValue) throws IllegalVariableEvaluationException {
+        return computeKvStoreKey(runContext.flowInfo().id(), stateName, filename, taskRunValue);
+    }
+
+    /**
+     * The KV key of the state of the flow, for the tasks that address the state of another flow.
+     */
+    public static String computeKvStoreKey(String flowId, String stateName, String filename, String taskRunValue) {
 
         String separator = "_";
         boolean hashTaskRunValue = taskRunValue != null;
 
-        String flowId = runContext.flowInfo().id();
-
         // KV is always flow-scoped as it's bound to a single task, not shared by multiple tasks inside a namespace
         String flowIdPrefix = (flowId == null) ? "" : (Slugify.of(flowId) + separator);
         String prefix = flowIdPrefix + "states" + separator + stateName;
@@ -230,6 +460,8 @@ public abstract class AbstractDebeziumRealtimeTrigger extends AbstractTrigger im
             return;
         }
 
+        waitForTermination.countDown();
+
         Optional.ofNullable(engineReference.get()).ifPresent(engine ->
         {
             try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
@@ -0,0 +1,90 @@
+package io.kestra.plugin.debezium;
+
+import java.util.List;
+import java.util.Map;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Sends an incremental snapshot signal to the capture of a flow, through the signal queue of its state.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractDebeziumSignal extends Task implements RunnableTask<AbstractDebeziumSignal.Output> {
+    @Schema(
+        title = "The flow of the capture to signal",
+        description = "The flow must be in the same namespace; defaults to the current flow."
+    )
+    @PluginProperty(group = "main")
+    protected Property<String> flowId;
+
+    @Schema(
+        title = "The name of the Debezium state of the capture to signal",
+        description = "The `stateName` of the capture task or trigger."
+    )
+    @NotNull
+    @Builder.Default
+    @PluginProperty(group = "main")
+    protected Property<String> stateName = Property.ofValue("debezium-state");
+
+    @Schema(
+        title = "The tables to snapshot",
+        description = "Regular expressions matching the fully-qualified names of the tables, as in `includedTables`. " +
+            "The tables must be captured by the connector."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<String>> dataCollections;
+
+    @Schema(
+        title = "A filter on the rows to snapshot",
+        description = "A condition applied to each table, in the query language of the source, e.g. `updated_at > '2024-01-01'`; " +
+            "all rows are read if not set."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<String> filter;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rFlowId = runContext.render(this.flowId).as(String.class).orElse(runContext.flowInfo().id());
+        var rStateName = runContext.render(this.stateName).as(String.class).orElseThrow();
+        var rDataCollections = runContext.render(this.dataCollections).asList(String.class);
+        var rFilter = runContext.render(this.filter).as(String.class).orElse(null);
+
+        if (rDataCollections.isEmpty()) {
+            throw new IllegalArgumentException("At least one table must be set in `dataCollections`");
+        }
+
+        Map<String, Object> signal = Signals.incrementalSnapshot(rDataCollections, rFilter);
+        String key = AbstractDebeziumRealtimeTrigger.computeKvStoreKey(rFlowId, rStateName, Signals.SIGNALS_STATE_FILE, null);
+
+        Signals.enqueue(runContext.namespaceKv(runContext.flowInfo().namespace()), key, signal);
+
+        runContext.logger().info("Requested an incremental snapshot of {} from the state '{}' of the flow '{}'", rDataCollections, rStateName, rFlowId);
+
+        return Output.builder()
+            .signalId((String) signal.get("id"))
+            .build();
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The id of the signal sent"
+        )
+        private String signalId;
+    }
+}
@@ -18,8 +18,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.apache.commons.io.FileUtils;
@@ -41,6 +43,9 @@ import io.kestra.core.storages.kv.KVValueAndMetadata;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.core.utils.Await;
 import io.kestra.core.utils.Hashing;
+import io.kestra.plugin.debezium.models.Aggregation;
+import io.kestra.plugin.debezium.models.SnapshotFilter;
+import io.kestra.plugin.debezium.models.StreamManifest;
 
 import ch.qos.logback.classic.LoggerContext;
 import io.debezium.embedded.Connect;
@@ -72,6 +77,16 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
 
     public static final String STATE_KEY_HISTORY = "history";
 
+    // Engine sizing learned by the adaptive batching, kept next to the offsets and persisted with them.
+    public static final String TUNING_DATA_FILE = "tuning.json";
+
+    public static final String STATE_KEY_TUNING = "tuning";
+
+    // The include list the offsets were captured with, to detect the tables added since.
+    public static final String INCLUDES_DATA_FILE = "includes.txt";
+
+    public static final String STATE_KEY_INCLUDES = "includes";
+
     @Builder.Default
     protected Property<Format> format = Property.ofValue(Format.INLINE);
 
@@ -121,6 +136,48 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
     @Builder.Default
     protected Property<String> stateName = Property.ofValue("debezium-state");
 
+    protected Property<Integer> tasksMax;
+
+    protected Property<Integer> recordProcessingThreads;
+
+    protected Property<RecordProcessingOrder> recordProcessingOrder;
+
+    protected Property<Integer> conversionParallelism;
+
+    protected Property<Double> memoryPauseThreshold;
+
+    protected Property<Double> memoryResumeThreshold;
+
+    protected Property<Long> maxBufferedBytes;
+
+    protected Property<Boolean> adaptiveBatching;
+
+    protected Property<Integer> maxRowsPerSecond;
+
+    protected Property<Long> maxBytesPerSecond;
+
+    protected Property<Boolean> adaptiveThrottling;
+
+    protected Property<Integer> snapshotMaxThreads;
+
+    protected Property<SnapshotTableOrder> snapshotTableOrder;
+
+    protected Property<SnapshotStrategy> snapshotStrategy;
+
+    protected Property<Integer> incrementalSnapshotChunkSize;
+
+    protected Property<String> signalDataCollection;
+
+    protected Property<Boolean> snapshotNewTables;
+
+    protected Property<List<SnapshotFilter>> snapshotFilters;
+
+    protected Property<Map<String, List<String>>> projections;
+
+    protected Property<String> rowFilter;
+
+    protected Property<Boolean> sparseUpdates;
+
     @Schema(
         title = "The maximum number of rows to fetch before stopping",
         description = "It's not an hard limit and is evaluated every second."
@@ -151,6 +208,105 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
     @PluginProperty(group = "execution")
     private Property<Duration> maxSnapshotDuration = Property.ofValue(Duration.ofHours(1));
 
+    @Schema(
+        title = "The number of rows buffered between the record conversion and the writes to the output files",
+        description = "When set, rows are written by dedicated writer threads with batched flushes, so a slow disk does not stall the Debezium engine. " +
+            "The engine is only blocked when the buffer is full."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> writerBufferSize;
+
+    @Schema(
+        title = "The number of writer threads used with `writerBufferSize`",
+        description = "Each output stream is always written by the same thread, so rows of a stream keep their order."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> writerThreads = Property.ofValue(1);
+
+    @Schema(
+        title = "Only output the last change of each key",
+        description = "The output files only hold the last change of each primary key captured by the run, deletes included, " +
+            "so their size follows the number of keys changed rather than the number of changes. " +
+            "The changes of the tables without primary key are all kept."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> compaction;
+
+    @Schema(
+        title = "Sort the rows of each output file by primary key",
+        description = """
+            - `NONE`: the rows are output in the order they are captured.
+            - `KEY`: the rows are sorted by table and primary key, the changes of a key keeping their source order.
+            - `LAST_PER_KEY`: like `KEY`, only keeping the last change of each key; the deleted keys are removed when `deleted` is `DROP`.
+            The rows of the tables without primary key are output first, in the order they are captured.
+            The sort uses at most `sortBufferSize` bytes of memory per output file, spilling to the working directory.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    private Property<OutputSort> outputSort;
+
+    @Schema(
+        title = "The memory used to sort each output file before spilling to disk, in bytes",
+        description = "Used by `outputSort` and `materializedState`."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Long> sortBufferSize = Property.ofValue(64L * 1024 * 1024);
+
+    @Schema(
+        title = "The number of files each table is output to, partitioned by primary key",
+        description = "The changes of a key are always written to the same partition, in their source order, so the partitions can be " +
+            "processed concurrently; the rows of the tables without primary key are spread across the partitions. " +
+            "The partition files are output in `partitions` rather than `uris`."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> partitions;
+
+    @Schema(
+        title = "Output a manifest with the statistics of each table",
+        description = "Gathers, while capturing, the changes by operation, the range of source timestamps and positions " +
+            "and the row schema fingerprints of each table, then the rows and size of its output files, " +
+            "which differ from the changes once compacted, sorted with `LAST_PER_KEY` or aggregated; " +
+            "they are output in `statistics` and in the `manifest` JSON file."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> manifest;
+
+    @Schema(
+        title = "Only output aggregates of the changes",
+        description = "Computes the aggregates of the output rows of each table over tumbling windows of their source timestamp, " +
+            "and only outputs one row per window and group, with its `windowStart` and `windowEnd`. " +
+            "A window is output as soon as a change of its table is past its end, the windows still open being output at the end of the capture; " +
+            "a change older than an output window outputs another row for its window and group, counted in the `aggregation.late` metric. " +
+            "The changes are still counted in `size`. Can't be used with `compaction`, `outputSort` or `partitions`."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Aggregation> aggregation;
+
+    @Schema(
+        title = "Maintain the latest row of each key in internal storage",
+        description = "Each run stores the changes it captured as a segment sorted by key, listed in the KV Store next to the state; " +
+            "the segments hold the last output row of each key, and are merged once there are more than `materializedStateMaxSegments`. " +
+            "Only the tables with a primary key are materialized. Can't be used with `sparseUpdates`."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> materializedState;
+
+    @Schema(
+        title = "Publish the full materialized state of each table",
+        description = "Outputs the latest row of each key of each materialized table in `snapshots`, a full-table snapshot that does not read the source database."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> materializedSnapshot;
+
+    @Schema(
+        title = "The number of segments of a materialized table before they are merged"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> materializedStateMaxSegments = Property.ofValue(8);
+
     @Schema(
         title = "When to commit the offsets to the KV Store",
         description = """
@@ -198,39 +354,48 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
             migrateHistoryFile(runContext.logger(), historyFile, identity.topicPrefix());
         }
 
-        final Properties props = this.properties(runContext, offsetFile, historyFile);
+        final Properties props = this.engineProperties(runContext, offsetFile, historyFile);
+
+        // only removed from the queue once the state is saved, so a failed run leaves them to the next one
+        Signals.Delivery signals = new Signals.Delivery(runContext, this.signalsKvKey(runContext), Path.of(props.getProperty("signal.file")));
+        signals.drain();
 
         ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
 
         CompletionCallback completionCallback = new CompletionCallback(runContext, executorService);
-        ChangeConsumer changeConsumer = new ChangeConsumer(this, runContext, count, snapshot, lastRecord, offsetFile, historyFile);
-
-        try (
-            DebeziumEngine<ChangeEvent<SourceRecord, SourceRecord>> engine = DebeziumEngine.create(Connect.class)
-                .using(this.getClass().getClassLoader())
-                .using(props)
-                .notifying(changeConsumer)
-                .using(completionCallback)
-                .build()
-        ) {
-            executorService.execute(engine);
-
-            ZonedDateTime snapshotStarted = ZonedDateTime.now();
-            boolean consumes;
-            do {
-                int previousCount = count.get();
-                ZonedDateTime captureStarted = ZonedDateTime.now();
-                Await.until(() ->
-                {
-                    try {
-                        return this.ended(executorService, count, captureStarted, lastRecord, snapshot, runContext);
-                    } catch (IllegalVariableEvaluationException e) {
-                        throw new RuntimeException(e);
-                    }
-                }, Duration.ofSeconds(1));
-                consumes = count.get() > previousCount;
-                // if we are still snapshotting, allow waiting for more time until snapshot wait duration is reached
-            } while (snapshot.get() && consumes && ZonedDateTime.now().isBefore(snapshotStarted.plus(runContext.render(this.maxSnapshotDuration).as(Duration.class).orElseThrow())));
+        ChangeConsumer changeConsumer = new ChangeConsumer(this, runContext, count, snapshot, lastRecord, offsetFile, historyFile, props);
+
+        try {
+            try (
+                DebeziumEngine<ChangeEvent<SourceRecord, SourceRecord>> engine = DebeziumEngine.create(Connect.class)
+                    .using(this.getClass().getClassLoader())
+                    .using(props)
+                    .notifying(changeConsumer)
+                    .using(completionCallback)
+                    .build()
+            ) {
+                executorService.execute(engine);
+
+                ZonedDateTime snapshotStarted = ZonedDateTime.now();
+                boolean consumes;
+                do {
+                    int previousCount = count.get();
+                    ZonedDateTime captureStarted = ZonedDateTime.now();
+                    Await.until(() ->
+                    {
+                        try {
+                            return this.ended(executorService, count, captureStarted, lastRecord, snapshot, runContext);
+                        } catch (IllegalVariableEvaluationException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }, Duration.ofSeconds(1));
+                    consumes = count.get() > previousCount;
+                    // if we are still snapshotting, allow waiting for more time until snapshot wait duration is reached
+                } while (snapshot.get() && consumes && ZonedDateTime.now().isBefore(snapshotStarted.plus(runContext.render(this.maxSnapshotDuration).as(Duration.class).orElseThrow())));
+            }
+        } finally {
+            // releases the conversion pool and the writers even when the capture fails
+            changeConsumer.close();
         }
 
         if (completionCallback.getError() != null) {
@@ -241,31 +406,73 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
 
         Output.OutputBuilder outputBuilder = Output.builder();
 
+        // before the offsets: a failure replays the changes, that the materialized state applies again
+        if (changeConsumer.getMaterializedState() != null) {
+            outputBuilder.snapshots(changeConsumer.getMaterializedState().commit(
+                this.materializedStateKvKey(runContext),
+                runContext.render(this.materializedStateMaxSegments).as(Integer.class).orElseThrow(),
+                runContext.render(this.materializedSnapshot).as(Boolean.class).orElse(false)
+            ));
+        }
+
         var combinedKey = saveFinalState(runContext, offsetFile, historyFile);
         if (combinedKey != null) {
             outputBuilder.stateOffsetKey(combinedKey);
             outputBuilder.stateHistoryKey(combinedKey);
+            signals.acknowledge();
         }
 
-        outputBuilder
-            .uris(
-                changeConsumer
-                    .getRecords()
-                    .entrySet()
-                    .stream()
-                    .map(throwFunction(e ->
-                    {
-                        e.getValue().getRight().flush();
-                        e.getValue().getRight().close();
+        Map<String, Long> sizes = new HashMap<>();
+        Map<String, URI> uris = changeConsumer
+            .getRecords()
+            .entrySet()
+            .stream()
+            .map(throwFunction(e ->
+            {
+                e.getValue().getRight().flush();
+                e.getValue().getRight().close();
+                sizes.put(e.getKey(), e.getValue().getLeft().length());
+
+                return new AbstractMap.SimpleEntry<>(
+                    e.getKey(),
+                    runContext.storage().putFile(e.getValue().getLeft())
+                );
 
-                        return new AbstractMap.SimpleEntry<>(
-                            e.getKey(),
-                            runContext.storage().putFile(e.getValue().getLeft())
-                        );
+            }))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-                    }))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
-            );
+        if (changeConsumer.getManifest() != null) {
+            Map<String, List<URI>> files = new HashMap<>();
+            Map<String, Long> bytes = new HashMap<>();
+            Map<String, Long> rows = new HashMap<>();
+            for (String stream : changeConsumer.getRecordsCount().keySet()) {
+                List<String> names = Optional.ofNullable(changeConsumer.getPartitionFiles().get(stream)).map(Arrays::asList).orElse(List.of(stream));
+
+                files.put(stream, names.stream().map(uris::get).filter(Objects::nonNull).toList());
+                bytes.put(stream, names.stream().mapToLong(name -> sizes.getOrDefault(name, 0L)).sum());
+                rows.put(stream, names.stream().map(changeConsumer.getOutputRows()::get).filter(Objects::nonNull).mapToLong(AtomicLong::get).sum());
+            }
+
+            Map<String, StreamManifest> manifest = changeConsumer.getManifest().build(files, bytes, rows);
+            Path manifestFile = runContext.workingDir().path().resolve(Manifest.MANIFEST_FILE);
+            Files.write(manifestFile, JacksonMapper.ofJson().writeValueAsBytes(manifest));
+
+            outputBuilder
+                .manifest(runContext.storage().putFile(manifestFile.toFile()))
+                .statistics(manifest);
+        }
+
+        // the partitions of a stream are output apart, in partition order, skipping the empty ones
+        if (!changeConsumer.getPartitionFiles().isEmpty()) {
+            Map<String, List<URI>> partitions = new TreeMap<>();
+            changeConsumer.getPartitionFiles().forEach((stream, files) -> partitions.put(
+                stream,
+                Arrays.stream(files).map(uris::remove).filter(Objects::nonNull).toList()
+            ));
+            outputBuilder.partitions(partitions);
+        }
+
+        outputBuilder.uris(uris);
 
         changeConsumer.getRecordsCount().forEach((s, atomicInteger) ->
         {
@@ -517,6 +724,138 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
         }
     }
 
+    /**
+     * The properties of the engine: the ones of the connector, completed by the settings that depend on the connector
+     * ones, like the snapshot mode replaced by the incremental snapshot strategy.
+     */
+    Properties engineProperties(RunContext runContext, Path offsetFile, Path historyFile) throws Exception {
+        Properties props = this.properties(runContext, offsetFile, historyFile);
+
+        var userProperties = this.properties != null ? runContext.render(this.properties).asMap(String.class, String.class).keySet() : Set.<String>of();
+        var strategy = runContext.render(this.snapshotStrategy).as(SnapshotStrategy.class).orElse(SnapshotStrategy.INITIAL);
+
+        if (this.incrementalSnapshotChunkSize != null) {
+            props.setProperty("incremental.snapshot.chunk.size", String.valueOf(runContext.render(this.incrementalSnapshotChunkSize).as(Integer.class).orElseThrow()));
+        }
+
+        var signalDataCollection = runContext.render(this.signalDataCollection).as(String.class);
+        signalDataCollection.ifPresent(collection -> props.setProperty("signal.data.collection", collection));
+
+        // the file channel receives the signals sent from Kestra, along with the source channel enabled by default
+        var signalFile = offsetFile.resolveSibling(Signals.SIGNAL_FILE);
+        if (!userProperties.contains("signal.enabled.channels")) {
+            props.setProperty("signal.enabled.channels", "source,file");
+        }
+        if (!userProperties.contains("signal.file")) {
+            props.setProperty("signal.file", signalFile.toAbsolutePath().toString());
+        }
+
+        // the progress of the chunks is kept in the offsets: only a first run, without offsets, starts the snapshot
+        boolean firstRun = !offsetFile.toFile().exists() || offsetFile.toFile().length() == 0;
+        var includeList = Optional.ofNullable(props.getProperty("table.include.list", props.getProperty("collection.include.list")))
+            .map(AbstractDebeziumTask::splitList)
+            .orElse(null);
+
+        var includesFile = offsetFile.resolveSibling(INCLUDES_DATA_FILE);
+        if (!firstRun && runContext.render(this.snapshotNewTables).as(Boolean.class).orElse(false)) {
+            var added = addedTables(
+                includesFile.toFile().exists() ? splitList(Files.readString(includesFile, StandardCharsets.UTF_8)) : null,
+                includeList
+            );
+
+            if (added == null) {
+                runContext.logger().warn("The include list was removed, the tables it now includes are streamed without a snapshot");
+            } else if (!added.isEmpty()) {
+                Signals.append(Path.of(props.getProperty("signal.file")), Signals.incrementalSnapshot(added));
+                runContext.logger().info("Requested an incremental snapshot of the newly included tables {}", added);
+            }
+        }
+        Files.writeString(includesFile, includeList == null ? "" : String.join(",", includeList), StandardCharsets.UTF_8);
+
+        if (strategy == SnapshotStrategy.INCREMENTAL) {
+            if (firstRun && !userProperties.contains("snapshot.mode")) {
+                props.setProperty("snapshot.mode", "no_data");
+
+                var dataCollections = Optional.ofNullable(includeList).orElse(List.of(".*"));
+
+                Signals.append(Path.of(props.getProperty("signal.file")), Signals.incrementalSnapshot(dataCollections));
+                runContext.logger().info("Requested an incremental snapshot of {}", dataCollections);
+            }
+        }
+
+        return props;
+    }
+
+    /**
+     * Pushes the snapshot filters down to the source, as one select statement per table for the SQL connectors.
+     */
+    protected void snapshotFilterProperties(Properties props, List<SnapshotFilter> filters) {
+        props.setProperty("snapshot.select.statement.overrides", filters.stream().map(SnapshotFilter::getTable).collect(Collectors.joining(",")));
+
+        filters.forEach(filter -> props.setProperty("snapshot.select.statement.overrides." + filter.getTable(), selectStatement(filter)));
+    }
+
+    static String selectStatement(SnapshotFilter filter) {
+        String columns = filter.getColumns() == null || filter.getColumns().isEmpty() ? "*" : String.join(", ", filter.getColumns());
+        String statement = "SELECT " + columns + " FROM " + filter.getTable();
+
+        return filter.getWhere() == null || filter.getWhere().isBlank() ? statement : statement + " WHERE " + filter.getWhere();
+    }
+
+    /**
+     * The tables included now and not in the include list the offsets were captured with.
+     *
+     * @param previous the previous include list, null when all tables were included, or when it was not tracked yet
+     * @param current the current include list, null when all tables are included
+     * @return the added tables, null when they cannot be listed as the include list was removed
+     */
+    static List<String> addedTables(List<String> previous, List<String> current) {
+        if (previous == null || previous.isEmpty()) {
+            return List.of();
+        }
+
+        if (current == null || current.isEmpty()) {
+            return null;
+        }
+
+        var known = previous.stream().map(t -> t.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+
+        return current.stream()
+            .filter(t -> !known.contains(t.toLowerCase(Locale.ROOT)))
+            .toList();
+    }
+
+    private static List<String> splitList(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).filter(t -> !t.isEmpty()).toList();
+    }
+
+    /**
+     * The KV key of the signals queued for this capture by the signal tasks.
+     */
+    String signalsKvKey(RunContext runContext) throws IllegalVariableEvaluationException {
+        return computeKvStoreKey(runContext, runContext.render(this.stateName).as(String.class).orElseThrow(), Signals.SIGNALS_STATE_FILE, null);
+    }
+
+    /**
+     * Whether the deletes remove the previous changes of their keys, so they must reach the consumer even when dropped.
+     */
+    private boolean removesDeletedKeys(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.compaction).as(Boolean.class).orElse(false) ||
+            runContext.render(this.materializedState).as(Boolean.class).orElse(false) ||
+            runContext.render(this.outputSort).as(OutputSort.class).orElse(OutputSort.NONE) == OutputSort.LAST_PER_KEY;
+    }
+
+    /**
+     * The KV key listing the segments of the materialized state of this capture.
+     */
+    String materializedStateKvKey(RunContext runContext) throws IllegalVariableEvaluationException {
+        var taskRunValue = runContext.storage().getTaskStorageContext()
+            .map(StorageContext.Task::getTaskRunValue)
+            .orElse(null);
+
+        return computeKvStoreKey(runContext, runContext.render(this.stateName).as(String.class).orElseThrow(), MaterializedState.MATERIALIZED_STATE_FILE, taskRunValue);
+    }
+
     protected Properties properties(RunContext runContext, Path offsetFile, Path historyFile) throws Exception {
         final Properties props = new Properties();
 
@@ -588,6 +927,45 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
             props.setProperty("column.exclude.list", joinProperties(runContext, this.excludedColumns));
         }
 
+        // async engine, tasks deliver their batches concurrently so the consumer must be thread-safe
+        if (this.tasksMax != null) {
+            props.setProperty("tasks.max", String.valueOf(runContext.render(this.tasksMax).as(Integer.class).orElseThrow()));
+        }
+
+        if (this.recordProcessingThreads != null) {
+            props.setProperty("record.processing.threads", String.valueOf(runContext.render(this.recordProcessingThreads).as(Integer.class).orElseThrow()));
+        }
+
+        if (this.recordProcessingOrder != null) {
+            props.setProperty("record.processing.order", runContext.render(this.recordProcessingOrder).as(RecordProcessingOrder.class).orElseThrow().name());
+        }
+
+        if (this.snapshotMaxThreads != null) {
+            props.setProperty("snapshot.max.threads", String.valueOf(runContext.render(this.snapshotMaxThreads).as(Integer.class).orElseThrow()));
+        }
+
+        if (this.snapshotTableOrder != null) {
+            props.setProperty("snapshot.tables.order.by.row.count", runContext.render(this.snapshotTableOrder).as(SnapshotTableOrder.class).orElseThrow().value());
+        }
+
+        // deletes are dropped by the connector itself, along with the truncates it skips by default
+        if (runContext.render(this.deleted).as(Deleted.class).orElse(null) == Deleted.DROP && !this.removesDeletedKeys(runContext)) {
+            props.setProperty("skipped.operations", "t,d");
+        }
+
+        if (this.snapshotFilters != null) {
+            var rSnapshotFilters = runContext.render(this.snapshotFilters).asList(SnapshotFilter.class);
+            if (!rSnapshotFilters.isEmpty()) {
+                this.snapshotFilterProperties(props, rSnapshotFilters);
+            }
+        }
+
+        // learned by the previous runs, set before the user properties that always win
+        var tuningFile = offsetFile.resolveSibling(TUNING_DATA_FILE);
+        if (runContext.render(this.adaptiveBatching).as(Boolean.class).orElse(false) && tuningFile.toFile().exists()) {
+            JacksonMapper.ofJson().readValue(tuningFile.toFile(), new TypeReference<Map<String, String>>() {}).forEach(props::setProperty);
+        }
+
         if (this.properties != null) {
             for (Map.Entry<String, String> entry : runContext.render(this.properties).asMap(String.class, String.class).entrySet()) {
                 props.setProperty(runContext.render(entry.getKey()), runContext.render(entry.getValue()));
@@ -655,6 +1033,8 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
                 if (this.needDatabaseHistory()) {
                     restoreFileFromMap(stateMap, STATE_KEY_HISTORY, historyFile);
                 }
+                restoreFileFromMap(stateMap, STATE_KEY_TUNING, offsetFile.resolveSibling(TUNING_DATA_FILE));
+                restoreFileFromMap(stateMap, STATE_KEY_INCLUDES, offsetFile.resolveSibling(INCLUDES_DATA_FILE));
                 return;
             }
 
@@ -723,6 +1103,14 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
             if (this.needDatabaseHistory()) {
                 stateMap.put(STATE_KEY_HISTORY, Files.readAllBytes(historyFile));
             }
+            var tuningFile = offsetFile.resolveSibling(TUNING_DATA_FILE);
+            if (tuningFile.toFile().exists()) {
+                stateMap.put(STATE_KEY_TUNING, Files.readAllBytes(tuningFile));
+            }
+            var includesFile = offsetFile.resolveSibling(INCLUDES_DATA_FILE);
+            if (includesFile.toFile().exists()) {
+                stateMap.put(STATE_KEY_INCLUDES, Files.readAllBytes(includesFile));
+            }
 
             kvStore.put(combinedKey, new KVValueAndMetadata(null, stateMap));
             return combinedKey;
@@ -792,6 +1180,37 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
         )
         @PluginProperty(additionalProperties = URI.class)
         private final Map<String, URI> uris;
+
+        @Schema(
+            title = "URI of the full snapshot of each materialized table",
+            description = "Only set when `materializedSnapshot` is enabled."
+        )
+        @PluginProperty(additionalProperties = URI.class)
+        private final Map<String, URI> snapshots;
+
+        @Schema(
+            title = "URIs of the partition files of each table",
+            description = "Only set when `partitions` is set; the partitioned tables are not in `uris`. The empty partitions are skipped."
+        )
+        private final Map<String, List<URI>> partitions;
+
+        @Schema(
+            title = "URI of the manifest of the outputs",
+            description = "A JSON file holding the `statistics` of each table; only set when `manifest` is enabled."
+        )
+        private final URI manifest;
+
+        @Schema(
+            title = "The statistics of the output rows of each table",
+            description = "Only set when `manifest` is enabled."
+        )
+        private final Map<String, StreamManifest> statistics;
+    }
+
+    public enum OutputSort {
+        NONE,
+        KEY,
+        LAST_PER_KEY,
     }
 
     public enum Key {
@@ -821,4 +1240,30 @@ public abstract class AbstractDebeziumTask extends Task implements RunnableTask<
         DATABASE,
         TABLE
     }
+
+    public enum RecordProcessingOrder {
+        ORDERED,
+        UNORDERED
+    }
+
+    public enum SnapshotStrategy {
+        INITIAL,
+        INCREMENTAL
+    }
+
+    public enum SnapshotTableOrder {
+        NONE("disabled"),
+        LARGEST_FIRST("descending"),
+        SMALLEST_FIRST("ascending");
+
+        private final String value;
+
+        SnapshotTableOrder(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
 }
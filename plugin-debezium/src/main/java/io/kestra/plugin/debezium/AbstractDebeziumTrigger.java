@@ -1,12 +1,15 @@
 package io.kestra.plugin.debezium;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.triggers.AbstractTrigger;
 import io.kestra.core.models.triggers.PollingTriggerInterface;
 import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.plugin.debezium.models.Aggregation;
+import io.kestra.plugin.debezium.models.SnapshotFilter;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
@@ -73,6 +76,48 @@ public abstract class AbstractDebeziumTrigger extends AbstractTrigger implements
     @Builder.Default
     protected Property<String> stateName = Property.ofValue("debezium-state");
 
+    protected Property<Integer> tasksMax;
+
+    protected Property<Integer> recordProcessingThreads;
+
+    protected Property<AbstractDebeziumTask.RecordProcessingOrder> recordProcessingOrder;
+
+    protected Property<Integer> conversionParallelism;
+
+    protected Property<Double> memoryPauseThreshold;
+
+    protected Property<Double> memoryResumeThreshold;
+
+    protected Property<Long> maxBufferedBytes;
+
+    protected Property<Boolean> adaptiveBatching;
+
+    protected Property<Integer> maxRowsPerSecond;
+
+    protected Property<Long> maxBytesPerSecond;
+
+    protected Property<Boolean> adaptiveThrottling;
+
+    protected Property<Integer> snapshotMaxThreads;
+
+    protected Property<AbstractDebeziumTask.SnapshotTableOrder> snapshotTableOrder;
+
+    protected Property<AbstractDebeziumTask.SnapshotStrategy> snapshotStrategy;
+
+    protected Property<Integer> incrementalSnapshotChunkSize;
+
+    protected Property<String> signalDataCollection;
+
+    protected Property<Boolean> snapshotNewTables;
+
+    protected Property<List<SnapshotFilter>> snapshotFilters;
+
+    protected Property<Map<String, List<String>>> projections;
+
+    protected Property<String> rowFilter;
+
+    protected Property<Boolean> sparseUpdates;
+
     @Schema(
         title = "The maximum number of rows to fetch before stopping",
         description = "It's not an hard limit and is evaluated every second."
@@ -103,6 +148,105 @@ public abstract class AbstractDebeziumTrigger extends AbstractTrigger implements
     @PluginProperty(group = "execution")
     protected Property<Duration> maxSnapshotDuration = Property.ofValue(Duration.ofHours(1));
 
+    @Schema(
+        title = "The number of rows buffered between the record conversion and the writes to the output files",
+        description = "When set, rows are written by dedicated writer threads with batched flushes, so a slow disk does not stall the Debezium engine. " +
+            "The engine is only blocked when the buffer is full."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> writerBufferSize;
+
+    @Schema(
+        title = "The number of writer threads used with `writerBufferSize`",
+        description = "Each output stream is always written by the same thread, so rows of a stream keep their order."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> writerThreads = Property.ofValue(1);
+
+    @Schema(
+        title = "Only output the last change of each key",
+        description = "The output files only hold the last change of each primary key captured by the run, deletes included, " +
+            "so their size follows the number of keys changed rather than the number of changes. " +
+            "The changes of the tables without primary key are all kept."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> compaction;
+
+    @Schema(
+        title = "Sort the rows of each output file by primary key",
+        description = """
+            - `NONE`: the rows are output in the order they are captured.
+            - `KEY`: the rows are sorted by table and primary key, the changes of a key keeping their source order.
+            - `LAST_PER_KEY`: like `KEY`, only keeping the last change of each key; the deleted keys are removed when `deleted` is `DROP`.
+            The rows of the tables without primary key are output first, in the order they are captured.
+            The sort uses at most `sortBufferSize` bytes of memory per output file, spilling to the working directory.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<AbstractDebeziumTask.OutputSort> outputSort;
+
+    @Schema(
+        title = "The memory used to sort each output file before spilling to disk, in bytes",
+        description = "Used by `outputSort` and `materializedState`."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Long> sortBufferSize = Property.ofValue(64L * 1024 * 1024);
+
+    @Schema(
+        title = "The number of files each table is output to, partitioned by primary key",
+        description = "The changes of a key are always written to the same partition, in their source order, so the partitions can be " +
+            "processed concurrently; the rows of the tables without primary key are spread across the partitions. " +
+            "The partition files are output in `partitions` rather than `uris`."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> partitions;
+
+    @Schema(
+        title = "Output a manifest with the statistics of each table",
+        description = "Gathers, while capturing, the changes by operation, the range of source timestamps and positions " +
+            "and the row schema fingerprints of each table, then the rows and size of its output files, " +
+            "which differ from the changes once compacted, sorted with `LAST_PER_KEY` or aggregated; " +
+            "they are output in `statistics` and in the `manifest` JSON file."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> manifest;
+
+    @Schema(
+        title = "Only output aggregates of the changes",
+        description = "Computes the aggregates of the output rows of each table over tumbling windows of their source timestamp, " +
+            "and only outputs one row per window and group, with its `windowStart` and `windowEnd`. " +
+            "A window is output as soon as a change of its table is past its end, the windows still open being output at the end of the capture; " +
+            "a change older than an output window outputs another row for its window and group, counted in the `aggregation.late` metric. " +
+            "The changes are still counted in `size`. Can't be used with `compaction`, `outputSort` or `partitions`."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Aggregation> aggregation;
+
+    @Schema(
+        title = "Maintain the latest row of each key in internal storage",
+        description = "Each run stores the changes it captured as a segment sorted by key, listed in the KV Store next to the state; " +
+            "the segments hold the last output row of each key, and are merged once there are more than `materializedStateMaxSegments`. " +
+            "Only the tables with a primary key are materialized. Can't be used with `sparseUpdates`."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> materializedState;
+
+    @Schema(
+        title = "Publish the full materialized state of each table",
+        description = "Outputs the latest row of each key of each materialized table in `snapshots`, a full-table snapshot that does not read the source database."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> materializedSnapshot;
+
+    @Schema(
+        title = "The number of segments of a materialized table before they are merged"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> materializedStateMaxSegments = Property.ofValue(8);
+
     @Schema(
         title = "When to commit the offsets to the KV Store",
         description = """
@@ -0,0 +1,318 @@
+package io.kestra.plugin.debezium;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.debezium.models.Message;
+import lombok.Getter;
+
+/**
+ * Aggregates the output rows of each stream over tumbling windows of event time, so only the aggregate rows are
+ * output.
+ *
+ * The watermark of a stream is the greatest event time of its changes: once a change moves it into a new window, the
+ * windows ending before it are closed and their rows returned, so only the open windows and their groups are kept in
+ * memory. A change older than the watermark reopens its window, output again with the next closed windows; the
+ * windows still open are output once the capture is done.
+ */
+public class Aggregator {
+    public static final String OPERATION = "operation";
+
+    private static final Pattern FUNCTION = Pattern.compile("(?i)\\s*(count|sum|min|max|avg)\\s*(?:\\(\\s*([^)\\s]+)\\s*\\))?\\s*");
+
+    private final long window;
+
+    private final List<String> groupBy;
+
+    private final Map<String, Function> aggregates = new LinkedHashMap<>();
+
+    // by stream, the groups of each open window
+    private final Map<String, Windows> windows = new ConcurrentHashMap<>();
+
+    @Getter
+    private final AtomicLong late = new AtomicLong();
+
+    public Aggregator(Duration window, List<String> groupBy, Map<String, String> aggregates) {
+        if (window == null || window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("The aggregation window must be a positive duration");
+        }
+        if (aggregates == null || aggregates.isEmpty()) {
+            throw new IllegalArgumentException("The aggregation must define at least one aggregate");
+        }
+
+        this.window = window.toMillis();
+        this.groupBy = groupBy != null ? groupBy : List.of();
+        aggregates.forEach((name, expression) -> this.aggregates.put(name, Function.parse(expression)));
+    }
+
+    /**
+     * @param eventTime the source timestamp of the change, in milliseconds
+     * @param operation the operation of the change
+     * @return the rows of the windows of the stream closed by this change, usually none
+     */
+    public List<Map<String, Object>> add(String stream, long eventTime, String operation, Map<String, Object> row) {
+        long start = Math.floorDiv(eventTime, window) * window;
+
+        List<Object> group = new ArrayList<>(groupBy.size());
+        for (String field : groupBy) {
+            group.add(field.equals(OPERATION) ? operation : value(row, field));
+        }
+
+        Windows streamWindows = windows.computeIfAbsent(stream, s -> new Windows());
+        synchronized (streamWindows) {
+            Accumulator[] accumulators = streamWindows.open
+                .computeIfAbsent(start, s -> new LinkedHashMap<>())
+                .computeIfAbsent(group, g -> aggregates.values().stream().map(Function::accumulator).toArray(Accumulator[]::new));
+
+            int i = 0;
+            for (Function function : aggregates.values()) {
+                accumulators[i++].add(function.field() != null ? value(row, function.field()) : Boolean.TRUE);
+            }
+
+            if (streamWindows.watermark != null && start + window <= streamWindows.watermark) {
+                late.incrementAndGet();
+            }
+
+            if (streamWindows.watermark != null && start <= Math.floorDiv(streamWindows.watermark, window) * window) {
+                streamWindows.watermark = Math.max(streamWindows.watermark, eventTime);
+                return List.of();
+            }
+
+            // the watermark enters a new window, closing the ones that end before it
+            streamWindows.watermark = eventTime;
+            return this.rows(streamWindows, streamWindows.open.headMap(start, false));
+        }
+    }
+
+    /**
+     * The rows of the windows still open, by stream, then by window and by group in order of appearance.
+     */
+    public Map<String, List<Map<String, Object>>> rows() {
+        Map<String, List<Map<String, Object>>> rows = new TreeMap<>();
+
+        windows.forEach((stream, streamWindows) -> {
+            synchronized (streamWindows) {
+                rows.put(stream, this.rows(streamWindows, streamWindows.open));
+            }
+        });
+
+        return rows;
+    }
+
+    /**
+     * The number of rows output so far, by stream.
+     */
+    public Map<String, Long> outputRows() {
+        Map<String, Long> outputRows = new TreeMap<>();
+
+        windows.forEach((stream, streamWindows) -> {
+            synchronized (streamWindows) {
+                outputRows.put(stream, streamWindows.outputRows);
+            }
+        });
+
+        return outputRows;
+    }
+
+    // the rows of the windows, removed from the open ones of the stream
+    private List<Map<String, Object>> rows(Windows streamWindows, Map<Long, Map<List<Object>, Accumulator[]>> closed) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        closed.forEach((start, groups) -> groups.forEach((group, accumulators) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("windowStart", Instant.ofEpochMilli(start));
+            row.put("windowEnd", Instant.ofEpochMilli(start + window));
+
+            for (int i = 0; i < groupBy.size(); i++) {
+                row.put(groupBy.get(i), group.get(i));
+            }
+
+            int i = 0;
+            for (String name : aggregates.keySet()) {
+                row.put(name, accumulators[i++].result());
+            }
+
+            rows.add(row);
+        }));
+
+        closed.clear();
+        streamWindows.outputRows += rows.size();
+
+        return rows;
+    }
+
+    // a field of the row, nested fields being separated by dots; the metadata blocks are read as they are output
+    @SuppressWarnings("unchecked")
+    private static Object value(Map<String, Object> row, String path) {
+        Object current = row;
+
+        for (String part : path.split("\\.")) {
+            if (current instanceof Message message) {
+                current = JacksonMapper.toMap(message);
+            }
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = ((Map<String, Object>) map).get(part);
+        }
+
+        return current;
+    }
+
+    private static class Windows {
+        // the groups of each window, by window start
+        private final TreeMap<Long, Map<List<Object>, Accumulator[]>> open = new TreeMap<>();
+
+        // the greatest event time, null until the first change
+        private Long watermark;
+
+        private long outputRows;
+    }
+
+    private record Function(String name, String field) {
+        private static Function parse(String expression) {
+            Matcher matcher = FUNCTION.matcher(expression);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid aggregate '" + expression + "': expected count, count(field), sum(field), min(field), max(field) or avg(field)");
+            }
+
+            String name = matcher.group(1).toLowerCase(Locale.ROOT);
+            if (!name.equals("count") && matcher.group(2) == null) {
+                throw new IllegalArgumentException("Invalid aggregate '" + expression + "': " + name + " needs a field");
+            }
+
+            return new Function(name, matcher.group(2));
+        }
+
+        private Accumulator accumulator() {
+            return switch (name) {
+                case "count" -> new Count();
+                case "sum" -> new Sum();
+                case "min" -> new Extremum(-1);
+                case "max" -> new Extremum(1);
+                case "avg" -> new Average();
+                default -> throw new IllegalStateException("Unknown aggregate " + name);
+            };
+        }
+    }
+
+    private interface Accumulator {
+        void add(Object value);
+
+        Object result();
+    }
+
+    private static class Count implements Accumulator {
+        private long count;
+
+        @Override
+        public void add(Object value) {
+            if (value != null) {
+                count++;
+            }
+        }
+
+        @Override
+        public Object result() {
+            return count;
+        }
+    }
+
+    private static class Sum implements Accumulator {
+        private BigDecimal sum;
+
+        @Override
+        public void add(Object value) {
+            BigDecimal number = number(value);
+            if (number != null) {
+                sum = sum == null ? number : sum.add(number);
+            }
+        }
+
+        @Override
+        public Object result() {
+            return sum;
+        }
+    }
+
+    private static class Average implements Accumulator {
+        private BigDecimal sum = BigDecimal.ZERO;
+
+        private long count;
+
+        @Override
+        public void add(Object value) {
+            BigDecimal number = number(value);
+            if (number != null) {
+                sum = sum.add(number);
+                count++;
+            }
+        }
+
+        @Override
+        public Object result() {
+            return count > 0 ? sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64) : null;
+        }
+    }
+
+    private static class Extremum implements Accumulator {
+        // 1 keeps the greatest value, -1 the smallest one
+        private final int sign;
+
+        private Object value;
+
+        private Extremum(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public void add(Object value) {
+            if (value != null && (this.value == null || Integer.signum(compare(value, this.value)) == sign)) {
+                this.value = value;
+            }
+        }
+
+        @Override
+        public Object result() {
+            return value;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compare(Object a, Object b) {
+            BigDecimal x = number(a);
+            BigDecimal y = number(b);
+            if (x != null && y != null) {
+                return x.compareTo(y);
+            }
+
+            if (a instanceof Comparable ca && a.getClass().equals(b.getClass())) {
+                return ca.compareTo(b);
+            }
+
+            return a.toString().compareTo(b.toString());
+        }
+    }
+
+    private static BigDecimal number(Object value) {
+        return switch (value) {
+            case BigDecimal decimal -> decimal;
+            case Double d when d.isNaN() || d.isInfinite() -> null;
+            case Float f when f.isNaN() || f.isInfinite() -> null;
+            case Number number -> new BigDecimal(number.toString());
+            case null, default -> null;
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package io.kestra.plugin.debezium;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.Getter;
+
+/**
+ * Decouples the engine thread from the disk: rows are pushed into bounded ring buffers and written by dedicated threads.
+ *
+ * Each stream is always handled by the same writer thread, so rows of a stream are written in the order they were submitted.
+ * Writers drain their buffer by batches and flush once per batch. The engine thread only blocks, applying backpressure
+ * to Debezium, when the buffer of the target writer is full.
+ */
+public class AsyncStreamWriter {
+    private static final int DRAIN_SIZE = 1024;
+
+    private static final Entry POISON = new Entry(null, null, 0);
+
+    private final StreamOutput output;
+
+    private final List<BlockingQueue<Entry>> queues = new ArrayList<>();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    @Getter
+    private final AtomicInteger maxOccupancy = new AtomicInteger();
+
+    @Getter
+    private final AtomicLong stallNanos = new AtomicLong();
+
+    @Getter
+    private final AtomicLong writeNanos = new AtomicLong();
+
+    public AsyncStreamWriter(int bufferSize, int threadCount, StreamOutput output) {
+        this.output = output;
+
+        int writers = Math.max(threadCount, 1);
+        int capacity = Math.max(bufferSize / writers, 1);
+
+        for (int i = 0; i < writers; i++) {
+            BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(capacity);
+            queues.add(queue);
+
+            threads.add(Thread.ofPlatform()
+                .name("debezium-writer-" + i)
+                .daemon(true)
+                .start(() -> this.drain(queue)));
+        }
+    }
+
+    /**
+     * @param bytes the approximate size of the row, handed back to {@link StreamOutput#released(long)} once written
+     */
+    public void submit(String stream, Map<String, Object> row, long bytes) throws IOException, InterruptedException {
+        this.throwIfFailed();
+
+        BlockingQueue<Entry> queue = queues.get(Math.floorMod(stream.hashCode(), queues.size()));
+        Entry entry = new Entry(stream, row, bytes);
+
+        if (!queue.offer(entry)) {
+            long start = System.nanoTime();
+            queue.put(entry);
+            stallNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        maxOccupancy.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Waits for all the buffered rows to be written, then stops the writer threads.
+     */
+    public void close() throws IOException, InterruptedException {
+        for (BlockingQueue<Entry> queue : queues) {
+            queue.put(POISON);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        this.throwIfFailed();
+    }
+
+    private void drain(BlockingQueue<Entry> queue) {
+        List<Entry> batch = new ArrayList<>(DRAIN_SIZE);
+        Set<String> written = new HashSet<>();
+
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, DRAIN_SIZE - 1);
+
+            long start = System.nanoTime();
+            long bytes = 0;
+            for (Entry entry : batch) {
+                if (entry == POISON) {
+                    stop = true;
+                    break;
+                }
+
+                bytes += entry.bytes();
+
+                // once failed, keep draining so the engine thread never blocks on a dead writer
+                if (failure.get() == null) {
+                    try {
+                        output.write(entry.stream(), entry.row());
+                        written.add(entry.stream());
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+
+            for (String stream : written) {
+                if (failure.get() == null) {
+                    try {
+                        output.flush(stream);
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+            writeNanos.addAndGet(System.nanoTime() - start);
+
+            if (bytes > 0) {
+                output.released(bytes);
+            }
+
+            batch.clear();
+            written.clear();
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        Exception exception = failure.get();
+        if (exception != null) {
+            throw new IOException("Unable to write records", exception);
+        }
+    }
+
+    private record Entry(String stream, Map<String, Object> row, long bytes) {
+    }
+
+    public interface StreamOutput {
+        void write(String stream, Map<String, Object> row) throws IOException;
+
+        void flush(String stream) throws IOException;
+
+        default void released(long bytes) {
+        }
+    }
+}
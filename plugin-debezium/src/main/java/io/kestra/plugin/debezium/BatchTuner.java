@@ -0,0 +1,147 @@
+package io.kestra.plugin.debezium;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Learns the engine batch and queue sizing from the batches handed to the consumer.
+ *
+ * The engine configuration cannot change while it runs: the observations of a run produce the values of the next one,
+ * persisted with the connector state. Each run moves the values one step, within safe bounds:
+ * <ul>
+ *     <li>batches that are mostly full, and quickly processed, mean a backlog on the source: the batch size doubles and the poll interval halves;</li>
+ *     <li>slow batches halve the batch size, so offsets are committed more often;</li>
+ *     <li>sparse batches double the poll interval, reducing the load on an idle source;</li>
+ *     <li>wide records (LOBs) cap the batch and bound the queue in bytes, so a batch never holds more than a fixed memory budget.</li>
+ * </ul>
+ * Properties provided by the user are never tuned.
+ */
+public class BatchTuner {
+    static final String MAX_BATCH_SIZE = "max.batch.size";
+    static final String MAX_QUEUE_SIZE = "max.queue.size";
+    static final String MAX_QUEUE_SIZE_IN_BYTES = "max.queue.size.in.bytes";
+    static final String POLL_INTERVAL_MS = "poll.interval.ms";
+
+    // Debezium defaults
+    static final int DEFAULT_MAX_BATCH_SIZE = 2048;
+    static final int DEFAULT_MAX_QUEUE_SIZE = 8192;
+    static final long DEFAULT_POLL_INTERVAL_MS = 500;
+
+    static final int MIN_BATCH_SIZE = 128;
+    static final int MAX_BATCH_SIZE_BOUND = 16_384;
+    static final int MAX_QUEUE_SIZE_BOUND = 65_536;
+    static final long MIN_POLL_INTERVAL_MS = 50;
+    static final long MAX_POLL_INTERVAL_MS = 2_000;
+
+    static final long BATCH_BYTES_BUDGET = 16L * 1024 * 1024;
+
+    // below this number of batches, the observations are not representative and the values are kept
+    static final int MIN_BATCHES = 5;
+
+    private static final double FULL_RATIO = 0.9;
+    private static final long SLOW_BATCH_NANOS = 5_000_000_000L;
+    private static final long FAST_BATCH_NANOS = 1_000_000_000L;
+
+    private final int maxBatchSize;
+    private final int maxQueueSize;
+    private final long maxQueueSizeInBytes;
+    private final long pollIntervalMs;
+
+    private final Set<String> pinned;
+
+    private final long queueBytesBudget;
+
+    private long batches;
+    private long fullBatches;
+    private long records;
+    private long bytes;
+    private long processingNanos;
+
+    /**
+     * @param effective the properties of the engine of this run
+     * @param pinned the properties provided by the user
+     */
+    public BatchTuner(Properties effective, Set<String> pinned) {
+        this(effective, pinned, Math.min(256L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 8));
+    }
+
+    BatchTuner(Properties effective, Set<String> pinned, long queueBytesBudget) {
+        this.maxBatchSize = Integer.parseInt(effective.getProperty(MAX_BATCH_SIZE, String.valueOf(DEFAULT_MAX_BATCH_SIZE)));
+        this.maxQueueSize = Integer.parseInt(effective.getProperty(MAX_QUEUE_SIZE, String.valueOf(DEFAULT_MAX_QUEUE_SIZE)));
+        this.maxQueueSizeInBytes = Long.parseLong(effective.getProperty(MAX_QUEUE_SIZE_IN_BYTES, "0"));
+        this.pollIntervalMs = Long.parseLong(effective.getProperty(POLL_INTERVAL_MS, String.valueOf(DEFAULT_POLL_INTERVAL_MS)));
+        this.pinned = pinned;
+        this.queueBytesBudget = queueBytesBudget;
+    }
+
+    public synchronized void observe(int size, long bytes, long processingNanos) {
+        this.batches++;
+        this.records += size;
+        this.bytes += bytes;
+        this.processingNanos += processingNanos;
+
+        if (size >= maxBatchSize * FULL_RATIO) {
+            this.fullBatches++;
+        }
+    }
+
+    /**
+     * The values to use on the next run, without the pinned properties.
+     */
+    public synchronized Map<String, String> tuned() {
+        int batchSize = maxBatchSize;
+        int queueSize = maxQueueSize;
+        long queueBytes = maxQueueSizeInBytes;
+        long pollInterval = pollIntervalMs;
+
+        if (batches >= MIN_BATCHES && records > 0) {
+            double fullRatio = (double) fullBatches / batches;
+            double fillRatio = (double) records / (batches * (double) maxBatchSize);
+            long averageNanos = processingNanos / batches;
+            long recordBytes = Math.max(bytes / records, 1);
+
+            if (averageNanos > SLOW_BATCH_NANOS) {
+                batchSize = batchSize / 2;
+            } else if (fullRatio >= 0.5 && averageNanos < FAST_BATCH_NANOS) {
+                batchSize = batchSize * 2;
+                pollInterval = pollInterval / 2;
+            } else if (fillRatio < 0.1) {
+                pollInterval = pollInterval * 2;
+            }
+
+            batchSize = (int) Math.min(batchSize, BATCH_BYTES_BUDGET / recordBytes);
+            batchSize = clamp(batchSize, MIN_BATCH_SIZE, MAX_BATCH_SIZE_BOUND);
+
+            // the engine requires a queue larger than a batch, four batches let the source be read while one is consumed
+            if (pinned.contains(MAX_QUEUE_SIZE)) {
+                batchSize = Math.min(batchSize, maxQueueSize - 1);
+            } else {
+                queueSize = clamp(batchSize * 4, batchSize + 1, MAX_QUEUE_SIZE_BOUND);
+            }
+
+            queueBytes = recordBytes * queueSize > queueBytesBudget ? queueBytesBudget : 0;
+
+            pollInterval = Math.max(MIN_POLL_INTERVAL_MS, Math.min(pollInterval, MAX_POLL_INTERVAL_MS));
+        }
+
+        Map<String, String> tuned = new LinkedHashMap<>();
+        this.put(tuned, MAX_BATCH_SIZE, String.valueOf(batchSize));
+        this.put(tuned, MAX_QUEUE_SIZE, String.valueOf(queueSize));
+        this.put(tuned, MAX_QUEUE_SIZE_IN_BYTES, String.valueOf(queueBytes));
+        this.put(tuned, POLL_INTERVAL_MS, String.valueOf(pollInterval));
+
+        return tuned;
+    }
+
+    private void put(Map<String, String> tuned, String name, String value) {
+        if (!pinned.contains(name)) {
+            tuned.put(name, value);
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
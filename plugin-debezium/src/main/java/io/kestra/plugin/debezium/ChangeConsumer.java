@@ -1,33 +1,57 @@
 package io.kestra.plugin.debezium;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.source.SourceRecord;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.debezium.models.Aggregation;
 import io.kestra.plugin.debezium.models.Envelope;
 import io.kestra.plugin.debezium.models.Message;
 
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
+import io.debezium.util.ApproximateStructSizeCalculator;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import reactor.core.publisher.FluxSink;
 
+import static io.kestra.core.utils.Rethrow.throwFunction;
+
 public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent<SourceRecord, SourceRecord>> {
+    private static final Predicate<String> ALL_FIELDS = field -> true;
+    private static final Predicate<String> WITHOUT_BEFORE = field -> !field.equals(io.debezium.data.Envelope.FieldName.BEFORE);
+    private static final Predicate<String> WITHOUT_AFTER = field -> !field.equals(io.debezium.data.Envelope.FieldName.AFTER);
+    private static final Predicate<String> AFTER_ONLY = field -> field.equals(io.debezium.data.Envelope.FieldName.OPERATION) || field.equals(io.debezium.data.Envelope.FieldName.AFTER);
+    private static final Predicate<String> BEFORE_ONLY = field -> field.equals(io.debezium.data.Envelope.FieldName.OPERATION) || field.equals(io.debezium.data.Envelope.FieldName.BEFORE);
+    private static final Predicate<String> IMAGES_ONLY = field -> field.equals(io.debezium.data.Envelope.FieldName.OPERATION) ||
+        field.equals(io.debezium.data.Envelope.FieldName.BEFORE) ||
+        field.equals(io.debezium.data.Envelope.FieldName.AFTER);
+
     private final AbstractDebeziumTask abstractDebeziumTask;
 
     private final RunContext runContext;
@@ -36,19 +60,97 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
     private final AtomicBoolean snapshot;
 
     @SuppressWarnings("unused")
-    private ZonedDateTime lastRecord;
+    private volatile ZonedDateTime lastRecord;
 
     private final Path offsetFile;
     private final Path historyFile;
 
+    // with several connector tasks, batches are handled concurrently: streams are created atomically and
+    // each stream file is written under its own lock, so tasks writing to different tables never contend.
     @Getter
-    private final Map<String, Pair<File, OutputStream>> records = new HashMap<>();
+    private final Map<String, Pair<File, OutputStream>> records = new ConcurrentHashMap<>();
+
+    private final Object offsetsLock = new Object();
 
     @Getter
     private final Map<String, AtomicInteger> recordsCount = new ConcurrentHashMap<>();
 
+    // the rows of each output file, once compacted
+    @Getter
+    private final Map<String, AtomicLong> outputRows = new ConcurrentHashMap<>();
+
+    // rendered once: the conversion runs concurrently and per record, it must not render on each call
+    private final AbstractDebeziumTask.Format format;
+    private final AbstractDebeziumTask.Deleted deleted;
+    private final String deletedFieldName;
+    private final AbstractDebeziumTask.Key key;
+    private final AbstractDebeziumTask.Metadata metadata;
+    private final String metadataFieldName;
+    private final AbstractDebeziumTask.SplitTable splitTable;
+    private final boolean ignoreDdl;
+    private final AbstractDebeziumRealtimeTrigger.OffsetCommitMode offsetsCommitMode;
+
+    private final OrderedParallelStage conversionStage;
+
+    private final AsyncStreamWriter asyncWriter;
+
+    private final MemoryGovernor.Registration memoryRegistration;
+
+    private final BatchTuner batchTuner;
+
+    private final ReadThrottle readThrottle;
+
+    private final SnapshotProgress snapshotProgress;
+
+    // the stream of the change events of each topic, a topic being a single table
+    private final Map<String, String> topicStreams = new ConcurrentHashMap<>();
+
+    private final AtomicLong filtered = new AtomicLong();
+
+    private final Projection.Tables projections;
+
+    private final RowPredicate rowFilter;
+
+    private final boolean sparseUpdates;
+
+    private final Compactor compactor;
+
+    @Getter
+    private final MaterializedState materializedState;
+
+    private final int partitions;
+
+    @Getter
+    private final Manifest manifest;
+
+    private final Aggregator aggregator;
+
+    // the output file of each partition, by stream
+    @Getter
+    private final Map<String, String[]> partitionFiles = new ConcurrentHashMap<>();
+
+    private final AtomicLong unkeyedRows = new AtomicLong();
+
+    // the rows of each stream, sorted by key once the capture is done
+    private final Map<String, ExternalSorter> sorters;
+    private final boolean lastPerKey;
+    private final long sortBufferSize;
+
+    private final AtomicLong sparseRows = new AtomicLong();
+
+    private final AtomicLong sparseFallbacks = new AtomicLong();
+
+    private final AtomicLong rowFilterMatched = new AtomicLong();
+
+    private final AtomicLong rowFilterDropped = new AtomicLong();
+
+    private final Map<String, Optional<Projection>> topicProjections = new ConcurrentHashMap<>();
+
+    private final AtomicLong conversionNanos = new AtomicLong();
+    private final AtomicLong outputNanos = new AtomicLong();
+
     public ChangeConsumer(AbstractDebeziumTask abstractDebeziumTask, RunContext runContext, AtomicInteger count, AtomicBoolean snapshot, ZonedDateTime lastRecord, Path offsetFile,
-        Path historyFile) {
+        Path historyFile, Properties props) throws IllegalVariableEvaluationException {
         this.abstractDebeziumTask = abstractDebeziumTask;
         this.runContext = runContext;
         this.count = count;
@@ -56,41 +158,157 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
         this.lastRecord = lastRecord;
         this.offsetFile = offsetFile;
         this.historyFile = historyFile;
+
+        this.format = runContext.render(abstractDebeziumTask.getFormat()).as(AbstractDebeziumTask.Format.class).orElseThrow();
+        this.deleted = runContext.render(abstractDebeziumTask.getDeleted()).as(AbstractDebeziumTask.Deleted.class).orElseThrow();
+        this.deletedFieldName = runContext.render(abstractDebeziumTask.getDeletedFieldName()).as(String.class).orElseThrow();
+        this.key = runContext.render(abstractDebeziumTask.getKey()).as(AbstractDebeziumTask.Key.class).orElseThrow();
+        this.metadata = runContext.render(abstractDebeziumTask.getMetadata()).as(AbstractDebeziumTask.Metadata.class).orElseThrow();
+        this.metadataFieldName = runContext.render(abstractDebeziumTask.getMetadataFieldName()).as(String.class).orElseThrow();
+        this.splitTable = runContext.render(abstractDebeziumTask.getSplitTable()).as(AbstractDebeziumTask.SplitTable.class).orElseThrow();
+        this.ignoreDdl = runContext.render(abstractDebeziumTask.getIgnoreDdl()).as(Boolean.class).orElseThrow();
+        this.offsetsCommitMode = runContext.render(abstractDebeziumTask.getOffsetsCommitMode()).as(AbstractDebeziumRealtimeTrigger.OffsetCommitMode.class)
+            .orElse(AbstractDebeziumRealtimeTrigger.OffsetCommitMode.ON_STOP);
+
+        this.projections = abstractDebeziumTask.getProjections() != null ?
+            Projection.Tables.of(this.renderProjections(runContext, abstractDebeziumTask)) :
+            null;
+
+        this.rowFilter = runContext.render(abstractDebeziumTask.getRowFilter()).as(String.class)
+            .map(RowPredicate::new)
+            .orElse(null);
+
+        this.compactor = runContext.render(abstractDebeziumTask.getCompaction()).as(Boolean.class).orElse(false) ? new Compactor() : null;
+
+        this.sparseUpdates = runContext.render(abstractDebeziumTask.getSparseUpdates()).as(Boolean.class).orElse(false);
+
+        this.partitions = runContext.render(abstractDebeziumTask.getPartitions()).as(Integer.class).orElse(1);
+
+        this.manifest = runContext.render(abstractDebeziumTask.getManifest()).as(Boolean.class).orElse(false) ? new Manifest() : null;
+
+        this.aggregator = runContext.render(abstractDebeziumTask.getAggregation()).as(Aggregation.class)
+            .map(aggregation -> new Aggregator(aggregation.getWindow(), aggregation.getGroupBy(), aggregation.getAggregates()))
+            .orElse(null);
+
+        this.sortBufferSize = runContext.render(abstractDebeziumTask.getSortBufferSize()).as(Long.class).orElseThrow();
+        var outputSort = runContext.render(abstractDebeziumTask.getOutputSort()).as(AbstractDebeziumTask.OutputSort.class).orElse(AbstractDebeziumTask.OutputSort.NONE);
+        this.sorters = outputSort != AbstractDebeziumTask.OutputSort.NONE ? new ConcurrentHashMap<>() : null;
+        this.lastPerKey = outputSort == AbstractDebeziumTask.OutputSort.LAST_PER_KEY;
+        if (sorters != null && compactor != null) {
+            throw new IllegalArgumentException("'outputSort' rewrites the outputs, it can't be used with 'compaction': use 'outputSort: LAST_PER_KEY' instead");
+        }
+        if (aggregator != null && (compactor != null || sorters != null || partitions > 1)) {
+            throw new IllegalArgumentException("'aggregation' outputs one row per window and group, it can't be used with 'compaction', 'outputSort' or 'partitions'");
+        }
+
+        this.materializedState = runContext.render(abstractDebeziumTask.getMaterializedState()).as(Boolean.class).orElse(false) ?
+            new MaterializedState(runContext, sortBufferSize) :
+            null;
+        if (materializedState != null && sparseUpdates) {
+            throw new IllegalArgumentException("'materializedState' stores the full rows, it can't be used with 'sparseUpdates'");
+        }
+
+        this.conversionStage = new OrderedParallelStage(runContext.render(abstractDebeziumTask.getConversionParallelism()).as(Integer.class).orElse(1));
+
+        var memoryPauseThreshold = runContext.render(abstractDebeziumTask.getMemoryPauseThreshold()).as(Double.class);
+        this.memoryRegistration = memoryPauseThreshold.isPresent() ?
+            MemoryGovernor.instance().register(
+                runContext.logger(),
+                memoryPauseThreshold.get(),
+                runContext.render(abstractDebeziumTask.getMemoryResumeThreshold()).as(Double.class).orElse(memoryPauseThreshold.get() - 0.15),
+                runContext.render(abstractDebeziumTask.getMaxBufferedBytes()).as(Long.class).orElse(null)
+            ) :
+            null;
+
+        this.batchTuner = runContext.render(abstractDebeziumTask.getAdaptiveBatching()).as(Boolean.class).orElse(false) ?
+            new BatchTuner(
+                props,
+                abstractDebeziumTask.getProperties() != null ? runContext.render(abstractDebeziumTask.getProperties()).asMap(String.class, String.class).keySet() : Set.of()
+            ) :
+            null;
+
+        this.snapshotProgress = new SnapshotProgress(runContext);
+
+        var maxRowsPerSecond = runContext.render(abstractDebeziumTask.getMaxRowsPerSecond()).as(Integer.class);
+        var maxBytesPerSecond = runContext.render(abstractDebeziumTask.getMaxBytesPerSecond()).as(Long.class);
+        this.readThrottle = maxRowsPerSecond.isPresent() || maxBytesPerSecond.isPresent() ?
+            new ReadThrottle(
+                maxRowsPerSecond.orElse(null),
+                maxBytesPerSecond.orElse(null),
+                runContext.render(abstractDebeziumTask.getAdaptiveThrottling()).as(Boolean.class).orElse(false),
+                Integer.parseInt(props.getProperty(BatchTuner.MAX_BATCH_SIZE, String.valueOf(BatchTuner.DEFAULT_MAX_BATCH_SIZE)))
+            ) :
+            null;
+
+        var writerBufferSize = runContext.render(abstractDebeziumTask.getWriterBufferSize()).as(Integer.class);
+        this.asyncWriter = writerBufferSize.isPresent() && writerBufferSize.get() > 0 ?
+            new AsyncStreamWriter(
+                writerBufferSize.get(),
+                runContext.render(abstractDebeziumTask.getWriterThreads()).as(Integer.class).orElse(1),
+                new AsyncStreamWriter.StreamOutput() {
+                    @Override
+                    public void write(String stream, Map<String, Object> row) throws IOException {
+                        writeRow(stream, row);
+                    }
+
+                    @Override
+                    public void flush(String stream) throws IOException {
+                        flushStream(stream);
+                    }
+
+                    @Override
+                    public void released(long bytes) {
+                        release(bytes);
+                    }
+                }
+            ) :
+            null;
     }
 
     @SneakyThrows
     @Override
     public void handleBatch(List<ChangeEvent<SourceRecord, SourceRecord>> records, DebeziumEngine.RecordCommitter<ChangeEvent<SourceRecord, SourceRecord>> committer) {
+        lastRecord = ZonedDateTime.now();
 
-        var rOffsetsCommitMode = runContext.render(abstractDebeziumTask.getOffsetsCommitMode()).as(AbstractDebeziumRealtimeTrigger.OffsetCommitMode.class)
-            .orElse(AbstractDebeziumRealtimeTrigger.OffsetCommitMode.ON_STOP);
+        long[] sizes = this.acquire(records);
+        long start = System.nanoTime();
 
-        lastRecord = ZonedDateTime.now();
+        List<Converted> converted = this.convert(records);
 
-        for (ChangeEvent<SourceRecord, SourceRecord> r : records) {
+        long outputStart = System.nanoTime();
+        for (int i = 0; i < records.size(); i++) {
+            ChangeEvent<SourceRecord, SourceRecord> r = records.get(i);
             SourceRecord record = r.value();
+            long size = sizes != null ? sizes[i] : 0;
+            snapshotProgress.record(record);
             if (record.sourceOffset().containsKey("snapshot") && record.sourceOffset().get("snapshot").equals(Boolean.TRUE)) {
                 snapshot.compareAndSet(false, true);
             } else {
                 snapshot.compareAndSet(true, false);
             }
 
-            Pair<Message, Message> message = MapConverter.convert(record);
-
-            Map<String, Object> result = this.handle(message);
+            Converted current = converted.get(i);
 
-            if (result != null) {
-                this.write(result, message.getValue().getSource());
+            if (current.result() != null) {
+                this.write(current.result(), this.stream(record), size, record);
+            } else {
+                if (deleted == AbstractDebeziumTask.Deleted.DROP && record.key() != null && isDelete(record)) {
+                    this.dropDelete(record, size);
+                }
+                this.release(size);
             }
 
             committer.markProcessed(r);
         }
+        outputNanos.addAndGet(System.nanoTime() - outputStart);
+
+        this.completed(sizes, start);
 
         committer.markBatchFinished();
 
         // Save offsets after batch if configured
-        if (rOffsetsCommitMode == AbstractDebeziumRealtimeTrigger.OffsetCommitMode.ON_EACH_BATCH) {
-            abstractDebeziumTask.saveOffsetsForTask(runContext, offsetFile, historyFile);
+        if (offsetsCommitMode == AbstractDebeziumRealtimeTrigger.OffsetCommitMode.ON_EACH_BATCH) {
+            this.saveOffsets();
         }
     }
 
@@ -98,87 +316,333 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
         List<ChangeEvent<SourceRecord, SourceRecord>> records,
         DebeziumEngine.RecordCommitter<ChangeEvent<SourceRecord, SourceRecord>> committer,
         FluxSink<AbstractDebeziumRealtimeTrigger.StreamOutput> sink,
-        AbstractDebeziumRealtimeTrigger.OffsetCommitMode offsetCommitMode) {
-        lastRecord = ZonedDateTime.now();
-
+        AbstractDebeziumRealtimeTrigger.OffsetCommitMode offsetCommitMode,
+        KeyDebouncer debouncer) {
         try {
-            for (ChangeEvent<SourceRecord, SourceRecord> r : records) {
-                SourceRecord record = r.value();
-
-                Pair<Message, Message> message = MapConverter.convert(record);
-
-                Map<String, Object> result = this.handle(message);
-
-                if (result != null) {
-                    this.emit(result, message.getValue().getSource(), sink);
-                }
+            this.publish(records, sink, debouncer);
 
+            for (ChangeEvent<SourceRecord, SourceRecord> r : records) {
                 committer.markProcessed(r);
             }
-
             committer.markBatchFinished();
 
             // Save offsets after batch if configured
             if (offsetCommitMode == AbstractDebeziumRealtimeTrigger.OffsetCommitMode.ON_EACH_BATCH) {
-                abstractDebeziumTask.saveOffsetsForTask(runContext, offsetFile, historyFile);
+                this.saveOffsets();
             }
         } catch (Exception exception) {
             sink.error(exception);
         }
     }
 
-    private Map<String, Object> handle(Pair<Message, Message> message) throws IllegalVariableEvaluationException {
-        if (this.isFilter(message)) {
+    /**
+     * Converts and emits a batch to the sink, without committing it.
+     */
+    private void publish(
+        List<ChangeEvent<SourceRecord, SourceRecord>> records,
+        FluxSink<AbstractDebeziumRealtimeTrigger.StreamOutput> sink,
+        KeyDebouncer debouncer) throws Exception {
+        lastRecord = ZonedDateTime.now();
+
+        if (debouncer != null && memoryRegistration != null && memoryRegistration.underPressure()) {
+            debouncer.flushUnderPressure();
+        }
+
+        long[] sizes = this.acquire(records);
+        long start = System.nanoTime();
+
+        try {
+            List<Converted> converted = this.convert(records);
+
+            long outputStart = System.nanoTime();
+            for (int i = 0; i < records.size(); i++) {
+                Converted current = converted.get(i);
+                snapshotProgress.record(records.get(i).value());
+
+                if (current.result() != null) {
+                    this.emit(current.result(), current.message(), records.get(i).value(), sink, debouncer);
+                }
+            }
+            outputNanos.addAndGet(System.nanoTime() - outputStart);
+
+            this.completed(sizes, start);
+        } finally {
+            if (sizes != null) {
+                this.release(Arrays.stream(sizes).sum());
+            }
+        }
+    }
+
+    /**
+     * Waits until the memory governor and the read throttle let the batch in, then accounts its size in the bytes
+     * buffered by this consumer.
+     *
+     * @return the approximate size of each record, to be released once written, or null when neither the memory
+     * governance, the adaptive batching, the read throttle, the output sort nor the materialized state needs them
+     */
+    private long[] acquire(List<ChangeEvent<SourceRecord, SourceRecord>> records) throws InterruptedException {
+        if (memoryRegistration == null && batchTuner == null && readThrottle == null && sorters == null && materializedState == null) {
             return null;
         }
 
-        switch (runContext.render(abstractDebeziumTask.getFormat()).as(AbstractDebeziumTask.Format.class).orElseThrow()) {
-            case RAW:
-                return this.handleFormatRaw(message);
-            case INLINE:
-                return this.handleFormatInline(message);
-            case WRAP:
-                return this.handleFormatWrap(message);
-            default:
-                throw new IllegalArgumentException("Invalid Format '" + this.abstractDebeziumTask.getFormat() + "");
+        if (memoryRegistration != null) {
+            memoryRegistration.awaitCapacity();
+        }
+
+        long[] sizes = new long[records.size()];
+        long total = 0;
+        for (int i = 0; i < records.size(); i++) {
+            sizes[i] = ApproximateStructSizeCalculator.getApproximateRecordSize(records.get(i).value());
+            total += sizes[i];
+        }
+
+        if (readThrottle != null) {
+            readThrottle.acquire(records.size(), total);
+        }
+
+        if (memoryRegistration != null) {
+            memoryRegistration.buffered(total);
+        }
+
+        return sizes;
+    }
+
+    private void completed(long[] sizes, long start) {
+        if (batchTuner != null) {
+            batchTuner.observe(sizes.length, Arrays.stream(sizes).sum(), System.nanoTime() - start);
+        }
+
+        if (readThrottle != null) {
+            readThrottle.completed();
+        }
+    }
+
+    private void release(long bytes) {
+        if (memoryRegistration != null && bytes > 0) {
+            memoryRegistration.released(bytes);
+        }
+    }
+
+    /**
+     * Converts and formats a batch, in parallel when `conversionParallelism` is set, the results being in the order of the batch.
+     */
+    private List<Converted> convert(List<ChangeEvent<SourceRecord, SourceRecord>> records) throws Exception {
+        long start = System.nanoTime();
+
+        List<Converted> converted = conversionStage.map(records, r -> {
+            if (this.isFilter(r.value())) {
+                filtered.incrementAndGet();
+                return Converted.FILTERED;
+            }
+
+            Projection projection = this.projection(r.value());
+            Pair<Message, Message> message = MapConverter.convert(r.value(), this.envelopeFields(r.value()), projection != null ? projection::fields : null);
+
+            Map<String, Object> result = this.handle(message);
+            if (sparseUpdates && format != AbstractDebeziumTask.Format.RAW && message.getValue() instanceof Envelope envelope && envelope.getOperation() == io.debezium.data.Envelope.Operation.UPDATE) {
+                result = this.sparse(result, envelope, r.value());
+            }
+            if (projection != null) {
+                result = projection.apply(result, format == AbstractDebeziumTask.Format.WRAP ? "record" : null);
+            }
+
+            return new Converted(message, result);
+        });
+
+        conversionNanos.addAndGet(System.nanoTime() - start);
+
+        return converted;
+    }
+
+    private void saveOffsets() throws IOException {
+        synchronized (offsetsLock) {
+            abstractDebeziumTask.saveOffsetsForTask(runContext, offsetFile, historyFile);
+        }
+    }
+
+    /**
+     * Waits for the buffered rows to be written, releases the conversion workers and publishes the time spent in each stage.
+     */
+    public void close() throws IOException, InterruptedException {
+        conversionStage.close();
+
+        runContext.metric(Timer.of("conversion.duration", Duration.ofNanos(conversionNanos.get())));
+        runContext.metric(Timer.of("output.duration", Duration.ofNanos(outputNanos.get())));
+        runContext.metric(Counter.of("filtered.records", filtered.get()));
+
+        if (sparseUpdates) {
+            runContext.metric(Counter.of("sparse.updates", sparseRows.get()));
+            runContext.metric(Counter.of("sparse.fallbacks", sparseFallbacks.get()));
+        }
+
+        if (rowFilter != null) {
+            runContext.metric(Counter.of("row.filter.matched", rowFilterMatched.get()));
+            runContext.metric(Counter.of("row.filter.dropped", rowFilterDropped.get()));
+        }
+
+        snapshotProgress.report();
+
+        if (asyncWriter != null) {
+            asyncWriter.close();
+
+            runContext.metric(Counter.of("writer.buffer.max", asyncWriter.getMaxOccupancy().get()));
+            runContext.metric(Timer.of("writer.stall.duration", Duration.ofNanos(asyncWriter.getStallNanos().get())));
+            runContext.metric(Timer.of("writer.duration", Duration.ofNanos(asyncWriter.getWriteNanos().get())));
+        }
+
+        if (aggregator != null) {
+            // the windows still open, the closed ones being already written
+            for (Map.Entry<String, List<Map<String, Object>>> stream : aggregator.rows().entrySet()) {
+                for (Map<String, Object> row : stream.getValue()) {
+                    this.writeRow(stream.getKey(), row);
+                }
+            }
+
+            aggregator.outputRows().forEach((stream, rows) -> runContext.metric(Counter.of("aggregation.rows", rows, "source", stream)));
+            runContext.metric(Counter.of("aggregation.late", aggregator.getLate().get()));
+        }
+
+        if (sorters != null) {
+            long start = System.nanoTime();
+
+            for (Map.Entry<String, ExternalSorter> sorter : sorters.entrySet()) {
+                int runs = sorter.getValue().getRuns();
+
+                // the dropped deletes are only kept to remove the previous changes of their keys
+                sorter.getValue().sort(entry -> {
+                    if (ExternalSorter.rowOf(entry) != null) {
+                        this.writeRow(sorter.getKey(), ExternalSorter.rowOf(entry));
+                    }
+                });
+
+                runContext.metric(Counter.of("sort.spills", runs, "source", sorter.getKey()));
+                runContext.metric(Counter.of("sort.duplicates", sorter.getValue().getDuplicates(), "source", sorter.getKey()));
+            }
+
+            runContext.metric(Timer.of("sort.duration", Duration.ofNanos(System.nanoTime() - start)));
         }
+
+        if (compactor != null) {
+            long start = System.nanoTime();
+
+            for (Map.Entry<String, Pair<File, OutputStream>> stream : records.entrySet()) {
+                stream.getValue().getRight().flush();
+                stream.getValue().getRight().close();
+
+                int removed = compactor.stream(stream.getKey()).compact(stream.getValue().getLeft());
+                outputRows.get(stream.getKey()).addAndGet(-removed);
+                runContext.metric(Counter.of("compaction.removed", removed, "source", stream.getKey()));
+            }
+
+            runContext.metric(Timer.of("compaction.duration", Duration.ofNanos(System.nanoTime() - start)));
+        }
+
+        if (batchTuner != null) {
+            Map<String, String> tuned = batchTuner.tuned();
+            Files.write(offsetFile.resolveSibling(AbstractDebeziumTask.TUNING_DATA_FILE), JacksonMapper.ofJson().writeValueAsBytes(tuned));
+
+            runContext.logger().info("Adaptive batching, next run will use: {}", tuned);
+        }
+
+        if (readThrottle != null) {
+            runContext.metric(Timer.of("throttle.duration", Duration.ofNanos(readThrottle.getThrottledNanos())));
+            Optional.ofNullable(readThrottle.effectiveRowsPerSecond()).ifPresent(rate -> runContext.metric(Counter.of("throttle.rows.rate", rate)));
+            Optional.ofNullable(readThrottle.effectiveBytesPerSecond()).ifPresent(rate -> runContext.metric(Counter.of("throttle.bytes.rate", rate)));
+        }
+
+        if (memoryRegistration != null) {
+            memoryRegistration.close();
+
+            runContext.metric(Counter.of("memory.pauses", memoryRegistration.getPauses().get()));
+            runContext.metric(Timer.of("memory.pause.duration", Duration.ofNanos(memoryRegistration.getPausedNanos().get())));
+        }
+    }
+
+    private Map<String, Object> handle(Pair<Message, Message> message) {
+        return switch (format) {
+            case RAW -> this.handleFormatRaw(message);
+            case INLINE -> this.handleFormatInline(message);
+            case WRAP -> this.handleFormatWrap(message);
+        };
+    }
+
+    /**
+     * The output stream of the record, read from its source block without converting it. The change events of a topic
+     * all come from the same table, so their stream is resolved once per topic.
+     */
+    String stream(SourceRecord record) {
+        if (splitTable == AbstractDebeziumTask.SplitTable.OFF) {
+            return "data";
+        }
+
+        if (record.topic() == null || !isEnvelope(record)) {
+            return this.stream(source(record));
+        }
+
+        return topicStreams.computeIfAbsent(record.topic(), topic -> this.stream(source(record)));
     }
 
-    private void emit(Map<String, Object> result, Message.Source source, FluxSink<AbstractDebeziumRealtimeTrigger.StreamOutput> sink) throws IllegalVariableEvaluationException {
-        String stream = switch (runContext.render(this.abstractDebeziumTask.getSplitTable()).as(AbstractDebeziumTask.SplitTable.class).orElseThrow()) {
+    private String stream(Struct source) {
+        Object db = field(source, "db");
+
+        // MongoDB names its tables collections
+        Object table = field(source, "table");
+        if (table == null) {
+            table = field(source, "collection");
+        }
+
+        return switch (splitTable) {
             case OFF -> "data";
-            case TABLE -> source.getDb() + "." + source.getTable();
-            case DATABASE -> source.getDb();
+            case TABLE -> db + "." + table;
+            case DATABASE -> db != null ? db.toString() : null;
         };
+    }
 
+    private void emit(
+        Map<String, Object> result,
+        Pair<Message, Message> message,
+        SourceRecord record,
+        FluxSink<AbstractDebeziumRealtimeTrigger.StreamOutput> sink,
+        KeyDebouncer debouncer
+    ) {
         AbstractDebeziumRealtimeTrigger.StreamOutput output = AbstractDebeziumRealtimeTrigger.StreamOutput.builder()
-            .stream(stream)
+            .stream(this.stream(record))
             .data(result)
             .build();
 
-        sink.next(output);
+        if (debouncer == null) {
+            sink.next(output);
+            return;
+        }
+
+        // the raw key is a connect Struct, equal for the same primary key values of the same topic
+        Object key = record.key() != null ? Pair.of(record.topic(), record.key()) : null;
+        io.debezium.data.Envelope.Operation operation = message.getValue() instanceof Envelope envelope ? envelope.getOperation() : null;
+
+        debouncer.offer(key, operation, output);
     }
 
-    private void write(Map<String, Object> result, Message.Source source) throws IOException, IllegalVariableEvaluationException {
-        String stream;
+    // the deletes that are not output still remove their key from the compacted outputs and the materialized state
+    private void dropDelete(SourceRecord record, long bytes) throws IOException {
+        if (compactor != null) {
+            Compactor.Stream compacted = compactor.stream(this.file(this.stream(record), record));
+            synchronized (compacted.order()) {
+                compacted.delete(Compactor.keyHash(record.topic(), record.key()));
+            }
+        }
 
-        switch (runContext.render(this.abstractDebeziumTask.getSplitTable()).as(AbstractDebeziumTask.SplitTable.class).orElseThrow()) {
-            case OFF:
-                stream = "data";
-                break;
-            case TABLE:
-                stream = source.getDb() + "." + source.getTable();
-                break;
-            case DATABASE:
-                stream = source.getDb();
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid SplitTable '" + this.abstractDebeziumTask.getSplitTable().toString() + "");
+        if (materializedState != null && record.key() instanceof Struct key) {
+            materializedState.add(this.stream(record), ExternalSorter.key(record.topic(), key), null, bytes);
         }
 
-        if (!this.records.containsKey(stream)) {
-            Path tempFile = runContext.workingDir().createTempFile(stream);
-            this.records.put(stream, Pair.of(tempFile.toFile(), new FileOutputStream(tempFile.toFile())));
+        if (sorters != null && lastPerKey && record.key() instanceof Struct key) {
+            this.sorter(this.file(this.stream(record), record)).add(ExternalSorter.key(record.topic(), key), null, bytes);
+        }
+    }
+
+    private void write(Map<String, Object> result, String stream, long bytes, SourceRecord record) throws IOException, InterruptedException {
+        if (materializedState != null && record.key() instanceof Struct key) {
+            materializedState.add(stream, ExternalSorter.key(record.topic(), key), isDelete(record) ? null : result, bytes);
         }
 
         this.recordsCount.computeIfAbsent(stream, k -> new AtomicInteger()).incrementAndGet();
@@ -189,30 +653,254 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
             runContext.logger().debug("Received {} records: {}", count, this.recordsCount);
         }
 
-        FileSerde.write(this.records.get(stream).getRight(), result);
+        if (manifest != null) {
+            manifest.record(stream, record);
+        }
+
+        if (aggregator != null) {
+            for (Map<String, Object> row : aggregator.add(stream, eventTime(record), operation(record), result)) {
+                this.output(stream, row, 0);
+            }
+            this.release(bytes);
+            return;
+        }
+
+        String file = this.file(stream, record);
+
+        if (sorters != null) {
+            this.sorter(file).add(record.key() instanceof Struct key ? ExternalSorter.key(record.topic(), key) : null, result, bytes);
+            this.release(bytes);
+            return;
+        }
+
+        if (compactor == null) {
+            this.output(file, result, bytes);
+            return;
+        }
+
+        Compactor.Stream compacted = compactor.stream(file);
+        synchronized (compacted.order()) {
+            compacted.add(record.key() != null ? Compactor.keyHash(record.topic(), record.key()) : null);
+            this.output(file, result, bytes);
+        }
+    }
+
+    /**
+     * The output file of the record: its stream, or the partition of its key in its stream when the outputs are
+     * partitioned. The rows without key are spread across the partitions.
+     */
+    private String file(String stream, SourceRecord record) {
+        if (partitions <= 1) {
+            return stream;
+        }
+
+        String[] files = partitionFiles.computeIfAbsent(stream, s -> IntStream.range(0, partitions)
+            .mapToObj(i -> s + "#" + i)
+            .toArray(String[]::new)
+        );
+
+        int partition = record.key() != null ?
+            (int) Long.remainderUnsigned(Compactor.keyHash(record.topic(), record.key()), partitions) :
+            Math.floorMod(unkeyedRows.getAndIncrement(), partitions);
+
+        return files[partition];
+    }
+
+    private void output(String stream, Map<String, Object> result, long bytes) throws IOException, InterruptedException {
+        if (asyncWriter != null) {
+            asyncWriter.submit(stream, result, bytes);
+        } else {
+            this.writeRow(stream, result);
+            this.release(bytes);
+        }
+    }
+
+    private ExternalSorter sorter(String stream) {
+        return sorters.computeIfAbsent(stream, s -> new ExternalSorter(runContext.workingDir().path(), sortBufferSize, lastPerKey));
+    }
+
+    private void writeRow(String stream, Map<String, Object> row) throws IOException {
+        Pair<File, OutputStream> output = this.records.computeIfAbsent(stream, throwFunction(s -> {
+            Path tempFile = runContext.workingDir().createTempFile(s);
+            OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile.toFile()));
+
+            // the compaction copies the rows it keeps from their position in the file
+            return Pair.of(tempFile.toFile(), compactor != null ? new CountingOutputStream(outputStream) : outputStream);
+        }));
+
+        synchronized (output) {
+            if (compactor != null) {
+                compactor.stream(stream).written(((CountingOutputStream) output.getRight()).getByteCount());
+            }
+            FileSerde.write(output.getRight(), row);
+        }
+        outputRows.computeIfAbsent(stream, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void flushStream(String stream) throws IOException {
+        Pair<File, OutputStream> output = this.records.get(stream);
+
+        synchronized (output) {
+            output.getRight().flush();
+        }
     }
 
-    @SuppressWarnings("RedundantIfStatement")
-    private boolean isFilter(Pair<Message, Message> message) throws IllegalVariableEvaluationException {
-        if (!(message.getValue() instanceof Envelope) && runContext.render(abstractDebeziumTask.getIgnoreDdl()).as(Boolean.class).orElseThrow()) {
+    /**
+     * Classifies the record from its value schema and operation, before any conversion: schema change events and
+     * heartbeats are no change events, and tombstones have no value.
+     */
+    boolean isFilter(SourceRecord record) {
+        boolean envelope = isEnvelope(record);
+
+        if (!envelope && ignoreDdl) {
+            return true;
+        }
+
+        if (record.value() == null && deleted == AbstractDebeziumTask.Deleted.DROP) {
             return true;
         }
 
-        if (message.getValue() == null && runContext.render(abstractDebeziumTask.getDeleted()).as(AbstractDebeziumTask.Deleted.class).orElseThrow() == AbstractDebeziumTask.Deleted.DROP) {
+        if (envelope && deleted == AbstractDebeziumTask.Deleted.DROP && io.debezium.data.Envelope.Operation.DELETE.code().equals(field((Struct) record.value(), "op"))) {
             return true;
         }
 
-        if (
-            !(message.getValue() instanceof Envelope)
-                && runContext.render(this.abstractDebeziumTask.getFormat()).as(AbstractDebeziumTask.Format.class).orElseThrow() != AbstractDebeziumTask.Format.RAW
-        ) {
+        if (!envelope && format != AbstractDebeziumTask.Format.RAW) {
             return true;
         }
 
+        if (rowFilter != null && envelope) {
+            if (!rowFilter.test(record.valueSchema(), (Struct) record.value())) {
+                rowFilterDropped.incrementAndGet();
+                return true;
+            }
+
+            rowFilterMatched.incrementAndGet();
+        }
+
         return false;
     }
 
-    private Map<String, Object> handleFormatRaw(Pair<Message, Message> message) throws IllegalVariableEvaluationException {
+    /**
+     * Removes the columns an update didn't change from its row, only keeping the primary key columns and the changed
+     * ones, and marks the row with its operation. Updates without before image are kept whole.
+     */
+    private Map<String, Object> sparse(Map<String, Object> result, Envelope envelope, SourceRecord record) {
+        Map<String, Object> before = envelope.getBefore();
+        Map<String, Object> after = envelope.getAfter();
+
+        if (before == null || after == null) {
+            sparseFallbacks.incrementAndGet();
+            return result;
+        }
+
+        Set<String> keyColumns = record.key() instanceof Struct key ?
+            key.schema().fields().stream().map(org.apache.kafka.connect.data.Field::name).collect(Collectors.toSet()) :
+            Set.of();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> row = format == AbstractDebeziumTask.Format.WRAP ? (Map<String, Object>) result.get("record") : result;
+
+        after.forEach((column, value) -> {
+            if (!keyColumns.contains(column) && before.containsKey(column) && Objects.deepEquals(before.get(column), value)) {
+                row.remove(column);
+            }
+        });
+
+        result.put("op", io.debezium.data.Envelope.Operation.UPDATE.code());
+        sparseRows.incrementAndGet();
+
+        return result;
+    }
+
+    /**
+     * The projection of the table of the record, resolved once per topic. The raw format writes the change events as is.
+     */
+    private Projection projection(SourceRecord record) {
+        if (projections == null || format == AbstractDebeziumTask.Format.RAW || record.topic() == null || !isEnvelope(record)) {
+            return null;
+        }
+
+        return topicProjections
+            .computeIfAbsent(record.topic(), topic -> Optional.ofNullable(projections.find(SnapshotProgress.dataCollection(topic))))
+            .orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<String>> renderProjections(RunContext runContext, AbstractDebeziumTask task) throws IllegalVariableEvaluationException {
+        Map<String, List<String>> rendered = new LinkedHashMap<>();
+        runContext.render(task.getProjections()).asMap(String.class, List.class)
+            .forEach((table, fields) -> rendered.put(table, (List<String>) fields));
+
+        return rendered;
+    }
+
+    /**
+     * The envelope fields read by the output: the raw format writes them all, the others only read the after image, or
+     * the before one for deletes, and the other fields only when adding the metadata.
+     */
+    private Predicate<String> envelopeFields(SourceRecord record) {
+        if (format == AbstractDebeziumTask.Format.RAW || !isEnvelope(record)) {
+            return ALL_FIELDS;
+        }
+
+        Object operation = field((Struct) record.value(), "op");
+        boolean delete = io.debezium.data.Envelope.Operation.DELETE.code().equals(operation);
+
+        // sparse updates are diffed against the before image
+        if (sparseUpdates && io.debezium.data.Envelope.Operation.UPDATE.code().equals(operation)) {
+            return metadata == AbstractDebeziumTask.Metadata.ADD_FIELD ? ALL_FIELDS : IMAGES_ONLY;
+        }
+
+        if (metadata == AbstractDebeziumTask.Metadata.ADD_FIELD) {
+            return delete ? WITHOUT_AFTER : WITHOUT_BEFORE;
+        }
+
+        return delete ? BEFORE_ONLY : AFTER_ONLY;
+    }
+
+    // the time of the change in the source database, or of the capture when the source has none
+    private static long eventTime(SourceRecord record) {
+        Object timestamp = field(source(record), "ts_ms");
+        if (timestamp == null && record.value() instanceof Struct value) {
+            timestamp = field(value, "ts_ms");
+        }
+
+        return timestamp instanceof Number number ? number.longValue() : System.currentTimeMillis();
+    }
+
+    private static String operation(SourceRecord record) {
+        Object code = isEnvelope(record) ? field((Struct) record.value(), "op") : null;
+        io.debezium.data.Envelope.Operation operation = code != null ? io.debezium.data.Envelope.Operation.forCode(code.toString()) : null;
+
+        return operation != null ? operation.name() : null;
+    }
+
+    private static boolean isDelete(SourceRecord record) {
+        return isEnvelope(record) && io.debezium.data.Envelope.Operation.DELETE.code().equals(field((Struct) record.value(), "op"));
+    }
+
+    private static boolean isEnvelope(SourceRecord record) {
+        return record.value() instanceof Struct &&
+            record.valueSchema() != null &&
+            record.valueSchema().name() != null &&
+            io.debezium.data.Envelope.isEnvelopeSchema(record.valueSchema());
+    }
+
+    private static Struct source(SourceRecord record) {
+        Object source = record.value() instanceof Struct value ? field(value, "source") : null;
+
+        return source instanceof Struct struct ? struct : null;
+    }
+
+    private static Object field(Struct struct, String name) {
+        if (struct == null || struct.schema().field(name) == null) {
+            return null;
+        }
+
+        return struct.get(name);
+    }
+
+    private Map<String, Object> handleFormatRaw(Pair<Message, Message> message) {
         Map<String, Object> result = new LinkedHashMap<>();
         result.put("key", message.getKey());
         result.put("value", message.getValue());
@@ -222,7 +910,7 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
         return result;
     }
 
-    private Map<String, Object> handleFormatInline(Pair<Message, Message> message) throws IllegalVariableEvaluationException {
+    private Map<String, Object> handleFormatInline(Pair<Message, Message> message) {
         Envelope value = (Envelope) message.getValue();
 
         Map<String, Object> result = this.formatInlineWithoutAdditional(value);
@@ -234,7 +922,7 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
         return result;
     }
 
-    private Map<String, Object> handleFormatWrap(Pair<Message, Message> message) throws IllegalVariableEvaluationException {
+    private Map<String, Object> handleFormatWrap(Pair<Message, Message> message) {
         Envelope value = (Envelope) message.getValue();
 
         Map<String, Object> result = new LinkedHashMap<>();
@@ -259,28 +947,25 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
         return result;
     }
 
-    private void addDeleted(Map<String, Object> result, Pair<Message, Message> message) throws IllegalVariableEvaluationException {
-        if (
-            runContext.render(this.abstractDebeziumTask.getDeleted()).as(AbstractDebeziumTask.Deleted.class).orElseThrow() == AbstractDebeziumTask.Deleted.ADD_FIELD
-                && message.getValue() instanceof Envelope
-        ) {
+    private void addDeleted(Map<String, Object> result, Pair<Message, Message> message) {
+        if (deleted == AbstractDebeziumTask.Deleted.ADD_FIELD && message.getValue() instanceof Envelope) {
             io.debezium.data.Envelope.Operation operation = ((Envelope) message.getValue()).getOperation();
 
             result.put(
-                runContext.render(this.abstractDebeziumTask.getDeletedFieldName()).as(String.class).orElseThrow(),
+                deletedFieldName,
                 operation == io.debezium.data.Envelope.Operation.DELETE || operation == io.debezium.data.Envelope.Operation.TRUNCATE
             );
         }
     }
 
-    private void addKey(Map<String, Object> result, Pair<Message, Message> message) throws IllegalVariableEvaluationException {
-        if (runContext.render(this.abstractDebeziumTask.getKey()).as(AbstractDebeziumTask.Key.class).orElseThrow() == AbstractDebeziumTask.Key.ADD_FIELD && message.getKey() != null) {
+    private void addKey(Map<String, Object> result, Pair<Message, Message> message) {
+        if (key == AbstractDebeziumTask.Key.ADD_FIELD && message.getKey() != null) {
             result.putAll(JacksonMapper.toMap(message.getKey()));
         }
     }
 
-    private void addMetadata(Map<String, Object> result, Envelope envelope) throws IllegalVariableEvaluationException {
-        if (runContext.render(this.abstractDebeziumTask.getMetadata()).as(AbstractDebeziumTask.Metadata.class).orElseThrow() == AbstractDebeziumTask.Metadata.ADD_FIELD) {
+    private void addMetadata(Map<String, Object> result, Envelope envelope) {
+        if (metadata == AbstractDebeziumTask.Metadata.ADD_FIELD) {
             Map<Object, Object> metadata = new HashMap<>();
 
             if (envelope.getProperties() != null) {
@@ -303,7 +988,7 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
                 metadata.put("timestamp", envelope.getTimestamp());
             }
 
-            result.put(runContext.render(abstractDebeziumTask.getMetadataFieldName()).as(String.class).orElseThrow(), metadata);
+            result.put(metadataFieldName, metadata);
         }
     }
 
@@ -311,4 +996,8 @@ public class ChangeConsumer implements DebeziumEngine.ChangeConsumer<ChangeEvent
     public boolean supportsTombstoneEvents() {
         return DebeziumEngine.ChangeConsumer.super.supportsTombstoneEvents();
     }
+
+    private record Converted(Pair<Message, Message> message, Map<String, Object> result) {
+        private static final Converted FILTERED = new Converted(null, null);
+    }
 }
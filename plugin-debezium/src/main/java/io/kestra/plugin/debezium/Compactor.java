@@ -0,0 +1,178 @@
+package io.kestra.plugin.debezium;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Keeps only the last change of each key in the output streams (last write wins).
+ *
+ * Rows are still appended to the stream files as they arrive; each stream indexes the last row of each key, and marks
+ * the rows a later change of their key supersedes. Once the capture is done, the stream files are rewritten with the
+ * rows that were not superseded, copying their bytes as is. Deletes are kept as the last change of their key, as
+ * tombstones, and deletes that are not output still supersede the previous changes of their key.
+ *
+ * The key index is stored off-heap, 16 bytes per key; each row costs 8 bytes off-heap, its offset in the stream file
+ * whose sign bit marks it as superseded.
+ */
+public class Compactor {
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    public Stream stream(String name) {
+        return streams.computeIfAbsent(name, k -> new Stream());
+    }
+
+    /**
+     * A 64-bit hash of the key of a change event, the collisions being negligible for billions of keys. The key columns
+     * are hashed by value, like they are sorted, so binary columns are hashed by content.
+     */
+    public static long keyHash(String topic, Object key) {
+        List<Object> values = key instanceof Struct struct ? ExternalSorter.key(topic, struct) : Arrays.asList(topic, ExternalSorter.value(key));
+
+        long hash = 0xCBF29CE484222325L;
+        for (Object value : values) {
+            for (byte b : (value + "\u0000").getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001B3L;
+            }
+        }
+
+        return KeyIndex.mix(hash);
+    }
+
+    public static class Stream {
+        private static final long SUPERSEDED = Long.MIN_VALUE;
+
+        // held while registering a row and handing it to the writer, so rows are registered in the order they are written
+        private final Object order = new Object();
+
+        private final KeyIndex index = new KeyIndex(1024);
+
+        // by row, its offset in the stream file and its superseded flag
+        private LongBuffer rows = ByteBuffer.allocateDirect(1024 * Long.BYTES).asLongBuffer();
+
+        private int submitted;
+
+        private int written;
+
+        public Object order() {
+            return order;
+        }
+
+        /**
+         * Registers the next row of the stream, superseding the previous row of its key. Rows must be registered in
+         * the order they are written.
+         *
+         * @param keyHash the hash of the key, null for the rows without key that are always kept
+         */
+        public synchronized void add(Long keyHash) {
+            int ordinal = submitted++;
+
+            if (ordinal == rows.capacity()) {
+                LongBuffer grown = ByteBuffer.allocateDirect(rows.capacity() * 2 * Long.BYTES).asLongBuffer();
+                grown.put(rows.clear());
+                rows = grown.clear();
+            }
+
+            if (keyHash != null) {
+                this.supersede(index.put(keyHash, ordinal));
+            }
+        }
+
+        /**
+         * Supersedes the previous row of a key deleted without output row.
+         */
+        public synchronized void delete(long keyHash) {
+            this.supersede(index.put(keyHash, -1));
+        }
+
+        /**
+         * Records the position of the next row in the stream file.
+         */
+        public synchronized void written(long offset) {
+            int row = written++;
+
+            // the row may already be superseded, by a later change registered before it was written
+            rows.put(row, offset | (rows.get(row) & SUPERSEDED));
+        }
+
+        /**
+         * Rewrites the stream file with the rows that were not superseded.
+         *
+         * @return the number of rows removed
+         */
+        public synchronized int compact(File file) throws IOException {
+            int removed = 0;
+            for (int row = 0; row < written; row++) {
+                if (this.superseded(row)) {
+                    removed++;
+                }
+            }
+
+            if (removed == 0) {
+                return 0;
+            }
+
+            Path compacted = file.toPath().resolveSibling(file.getName() + ".compacted");
+            try (
+                FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+            ) {
+                long length = in.size();
+                int row = 0;
+
+                // copies each range of consecutive kept rows at once
+                while (row < written) {
+                    if (this.superseded(row)) {
+                        row++;
+                        continue;
+                    }
+
+                    int end = row;
+                    while (end < written && !this.superseded(end)) {
+                        end++;
+                    }
+
+                    long from = this.offset(row);
+                    long to = end < written ? this.offset(end) : length;
+                    while (from < to) {
+                        from += in.transferTo(from, to - from, out);
+                    }
+
+                    row = end;
+                }
+            }
+
+            Files.move(compacted, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            return removed;
+        }
+
+        private void supersede(long previous) {
+            if (previous >= 0) {
+                rows.put((int) previous, rows.get((int) previous) | SUPERSEDED);
+            }
+        }
+
+        private boolean superseded(int row) {
+            return (rows.get(row) & SUPERSEDED) != 0;
+        }
+
+        private long offset(int row) {
+            return rows.get(row) & ~SUPERSEDED;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package io.kestra.plugin.debezium;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import lombok.Getter;
+
+/**
+ * Sorts entries by key with a bounded memory: entries are buffered until the buffer is full, then sorted and spilled
+ * to a run file in the working directory; the runs are merged with a k-way merge once all the entries are added.
+ *
+ * The sort is stable: entries of the same key keep the order they were added in, which is their source order for
+ * change events. With {@code lastPerKey}, only the last entry of each key is kept, each run being deduplicated before
+ * being spilled. Entries without key are sorted first and always kept.
+ *
+ * Each entry is stored as {@code {key: [...], row: {...}}}, the key being the topic followed by the primary key
+ * columns, and the row being absent for deletes.
+ */
+public class ExternalSorter {
+    static final Comparator<List<Object>> KEYS = Comparator.nullsFirst(ExternalSorter::compare);
+
+    static final String KEY = "key";
+    static final String ROW = "row";
+
+    private final Path directory;
+
+    private final long bufferSize;
+
+    private final boolean lastPerKey;
+
+    private final List<Map<String, Object>> buffer = new ArrayList<>();
+
+    private long buffered;
+
+    private final List<File> runs = new ArrayList<>();
+
+    @Getter
+    private long duplicates;
+
+    /**
+     * @param directory the directory of the spilled runs
+     * @param bufferSize the memory used before spilling a run, in bytes
+     */
+    public ExternalSorter(Path directory, long bufferSize, boolean lastPerKey) {
+        this.directory = directory;
+        this.bufferSize = bufferSize;
+        this.lastPerKey = lastPerKey;
+    }
+
+    /**
+     * The key of a change event: its topic, then the values of its key columns.
+     */
+    public static List<Object> key(String topic, Struct key) {
+        List<Object> values = new ArrayList<>();
+        values.add(topic);
+
+        for (Field field : key.schema().fields()) {
+            values.add(value(key.get(field)));
+        }
+
+        return values;
+    }
+
+    /**
+     * @param key the key of the entry, null for entries without key
+     * @param row the row, null for deletes
+     * @param size the estimated size of the entry in memory
+     */
+    public synchronized void add(List<Object> key, Map<String, Object> row, long size) throws IOException {
+        buffer.add(entry(key, row));
+        buffered += size;
+
+        if (buffered >= bufferSize) {
+            this.spill();
+        }
+    }
+
+    public synchronized int getRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Calls the consumer with the entries sorted by key, then deletes the runs.
+     */
+    public synchronized void sort(EntryConsumer consumer) throws IOException {
+        if (runs.isEmpty()) {
+            this.sortBuffer(consumer);
+            return;
+        }
+
+        this.spill();
+
+        List<InputStream> inputStreams = new ArrayList<>();
+        try {
+            List<Iterator<Map<String, Object>>> iterators = new ArrayList<>();
+            for (File run : runs) {
+                InputStream inputStream = Files.newInputStream(run.toPath());
+                inputStreams.add(inputStream);
+                iterators.add(reader(inputStream));
+            }
+
+            duplicates += merge(iterators, lastPerKey, consumer);
+        } finally {
+            for (InputStream inputStream : inputStreams) {
+                inputStream.close();
+            }
+            for (File run : runs) {
+                Files.deleteIfExists(run.toPath());
+            }
+            runs.clear();
+        }
+    }
+
+    private void spill() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        File run = Files.createTempFile(directory, "sort", ".ion").toFile();
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(run))) {
+            this.sortBuffer(entry -> FileSerde.write(outputStream, entry));
+        }
+
+        runs.add(run);
+    }
+
+    private void sortBuffer(EntryConsumer consumer) throws IOException {
+        // List.sort is stable: the entries of a key stay in the order they were added
+        buffer.sort(Comparator.comparing(ExternalSorter::keyOf, KEYS));
+
+        for (int i = 0; i < buffer.size(); i++) {
+            Map<String, Object> entry = buffer.get(i);
+
+            if (lastPerKey && i + 1 < buffer.size() && sameKey(entry, buffer.get(i + 1))) {
+                duplicates++;
+                continue;
+            }
+
+            consumer.accept(entry);
+        }
+
+        buffer.clear();
+        buffered = 0;
+    }
+
+    /**
+     * Merges iterators of entries sorted by key, the entries of the same key following the order of the iterators.
+     *
+     * @param lastPerKey whether to only keep the entry of the last iterator for each key, the keys being unique in each iterator
+     * @return the number of entries dropped
+     */
+    static long merge(List<? extends Iterator<Map<String, Object>>> iterators, boolean lastPerKey, EntryConsumer consumer) throws IOException {
+        // the smallest key first, then the first iterator, or the last one when only the last entry of the key is kept
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::key, KEYS).thenComparing((x, y) ->
+            lastPerKey && x.key() != null ? Integer.compare(y.index(), x.index()) : Integer.compare(x.index(), y.index())
+        ));
+        long dropped = 0;
+
+        for (int i = 0; i < iterators.size(); i++) {
+            advance(iterators.get(i), i, heads);
+        }
+
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            consumer.accept(head.entry());
+            advance(iterators.get(head.index()), head.index(), heads);
+
+            while (lastPerKey && !heads.isEmpty() && sameKey(heads.peek().entry(), head.entry())) {
+                Head superseded = heads.poll();
+                advance(iterators.get(superseded.index()), superseded.index(), heads);
+                dropped++;
+            }
+        }
+
+        return dropped;
+    }
+
+    private static void advance(Iterator<Map<String, Object>> iterator, int index, PriorityQueue<Head> heads) {
+        if (iterator.hasNext()) {
+            Map<String, Object> entry = iterator.next();
+            heads.add(new Head(keyOf(entry), entry, index));
+        }
+    }
+
+    private record Head(List<Object> key, Map<String, Object> entry, int index) {}
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(Map<String, Object> entry) throws IOException;
+    }
+
+    static Map<String, Object> entry(List<Object> key, Map<String, Object> row) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put(KEY, key);
+        if (row != null) {
+            entry.put(ROW, row);
+        }
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> keyOf(Map<String, Object> entry) {
+        return (List<Object>) entry.get(KEY);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> rowOf(Map<String, Object> entry) {
+        return (Map<String, Object>) entry.get(ROW);
+    }
+
+    static MappingIterator<Map<String, Object>> reader(InputStream inputStream) throws IOException {
+        return JacksonMapper.ofIon().readerFor(Map.class).readValues(inputStream);
+    }
+
+    // entries without key are never the same key
+    private static boolean sameKey(Map<String, Object> a, Map<String, Object> b) {
+        return keyOf(a) != null && keyOf(b) != null && compare(keyOf(a), keyOf(b)) == 0;
+    }
+
+    // a key column value that keeps its order once spilled, binary values being compared by content
+    static Object value(Object value) {
+        return switch (value) {
+            case null -> null;
+            case Number number -> number;
+            case String string -> string;
+            case Boolean bool -> bool;
+            case Date date -> date.getTime();
+            case byte[] bytes -> HexFormat.of().formatHex(bytes);
+            case ByteBuffer buffer -> HexFormat.of().formatHex(bytes(buffer));
+            default -> value.toString();
+        };
+    }
+
+    // the remaining bytes of the buffer, whether read-only or direct, without moving its position
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(List<Object> a, List<Object> b) {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            Object x = a.get(i);
+            Object y = b.get(i);
+
+            int result;
+            if (x == null || y == null) {
+                result = x == null ? (y == null ? 0 : -1) : 1;
+            } else if (x instanceof Number nx && y instanceof Number ny) {
+                result = new BigDecimal(nx.toString()).compareTo(new BigDecimal(ny.toString()));
+            } else if (x instanceof Comparable cx && x.getClass().equals(y.getClass())) {
+                result = cx.compareTo(y);
+            } else {
+                result = x.toString().compareTo(y.toString());
+            }
+
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return Integer.compare(a.size(), b.size());
+    }
+}
@@ -0,0 +1,153 @@
+package io.kestra.plugin.debezium;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import io.debezium.data.Envelope;
+import lombok.Getter;
+
+/**
+ * Coalesces realtime outputs per record key: within a window, only the latest state of a key is emitted.
+ *
+ * The window of a key starts with its first pending change, so a key updated continuously is still
+ * emitted at least once per window. A pending delete is never replaced by a later update (deletes win),
+ * only by a re-insert. The pending map is bounded: when it is full, the oldest key is emitted early, and it is emitted
+ * all at once under memory pressure, before the capture is paused.
+ */
+public class KeyDebouncer implements AutoCloseable {
+    private final long windowNanos;
+
+    private final int maxKeys;
+
+    private final Consumer<AbstractDebeziumRealtimeTrigger.StreamOutput> downstream;
+
+    private final LongSupplier clock;
+
+    // insertion ordered, so the eldest entry is always the first one to expire
+    private final LinkedHashMap<Object, Pending> pending = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    @Getter
+    private final AtomicLong superseded = new AtomicLong();
+
+    @Getter
+    private final AtomicLong pressureFlushes = new AtomicLong();
+
+    public KeyDebouncer(Duration window, int maxKeys, Consumer<AbstractDebeziumRealtimeTrigger.StreamOutput> downstream) {
+        this(window, maxKeys, downstream, System::nanoTime);
+
+        long tick = Math.clamp(window.toMillis() / 4, 10L, 1000L);
+        this.scheduler.scheduleAtFixedRate(this::flushExpired, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    KeyDebouncer(Duration window, int maxKeys, Consumer<AbstractDebeziumRealtimeTrigger.StreamOutput> downstream, LongSupplier clock) {
+        this.windowNanos = window.toNanos();
+        this.maxKeys = Math.max(maxKeys, 1);
+        this.downstream = downstream;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("debezium-debounce").factory());
+    }
+
+    /**
+     * Offers an output for the given key. Outputs without a key (tables without primary key) are emitted right away.
+     */
+    public synchronized void offer(Object key, Envelope.Operation operation, AbstractDebeziumRealtimeTrigger.StreamOutput output) {
+        if (key == null) {
+            downstream.accept(output);
+            return;
+        }
+
+        boolean delete = operation == Envelope.Operation.DELETE || operation == Envelope.Operation.TRUNCATE;
+
+        Pending current = pending.get(key);
+        if (current != null) {
+            superseded.incrementAndGet();
+
+            if (current.delete && operation != Envelope.Operation.CREATE) {
+                return;
+            }
+
+            current.output = output;
+            current.delete = delete;
+            return;
+        }
+
+        pending.put(key, new Pending(output, delete, clock.getAsLong() + windowNanos));
+
+        if (pending.size() > maxKeys) {
+            Iterator<Map.Entry<Object, Pending>> eldest = pending.entrySet().iterator();
+            Pending evicted = eldest.next().getValue();
+            eldest.remove();
+            downstream.accept(evicted.output);
+        }
+    }
+
+    /**
+     * Emits all the keys whose window has expired.
+     */
+    public synchronized void flushExpired() {
+        long now = clock.getAsLong();
+
+        Iterator<Map.Entry<Object, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Pending next = iterator.next().getValue();
+            if (next.deadline - now > 0) {
+                return;
+            }
+
+            iterator.remove();
+            downstream.accept(next.output);
+        }
+    }
+
+    /**
+     * Emits all the pending keys, whatever their window.
+     */
+    public synchronized void flush() {
+        pending.values().forEach(p -> downstream.accept(p.output));
+        pending.clear();
+    }
+
+    /**
+     * Emits all the pending keys as the memory is under pressure, so they are not held while the capture is paused.
+     */
+    public synchronized void flushUnderPressure() {
+        if (!pending.isEmpty()) {
+            pressureFlushes.incrementAndGet();
+            this.flush();
+        }
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        this.flush();
+    }
+
+    private static class Pending {
+        private AbstractDebeziumRealtimeTrigger.StreamOutput output;
+
+        private boolean delete;
+
+        private final long deadline;
+
+        private Pending(AbstractDebeziumRealtimeTrigger.StreamOutput output, boolean delete, long deadline) {
+            this.output = output;
+            this.delete = delete;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.debezium;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+import lombok.Getter;
+
+/**
+ * An open-addressing hash map from long to long, stored off-heap in a direct buffer: 16 bytes per entry, with no
+ * object per entry, so it holds millions of keys without weighing on the heap and the garbage collector.
+ *
+ * Not thread-safe. The keys are hashes: 0 is reserved for empty slots, so it is remapped.
+ */
+public class KeyIndex {
+    private static final long EMPTY = 0L;
+
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+    private static final double LOAD_FACTOR = 0.6;
+
+    private LongBuffer table;
+
+    private int capacity;
+
+    @Getter
+    private int size;
+
+    public KeyIndex(int expectedSize) {
+        this.capacity = Integer.highestOneBit(Math.max((int) (expectedSize / LOAD_FACTOR), 16) - 1) << 1;
+        this.table = allocate(capacity);
+    }
+
+    /**
+     * @return the previous value of the key, or -1 when the key was absent
+     */
+    public long put(long key, long value) {
+        if (size + 1 > capacity * LOAD_FACTOR) {
+            this.resize();
+        }
+
+        long k = key == EMPTY ? ZERO_KEY : key;
+        int slot = this.slot(k);
+
+        long previous = table.get(slot * 2 + 1);
+        if (table.get(slot * 2) == EMPTY) {
+            table.put(slot * 2, k);
+            size++;
+            previous = -1;
+        }
+        table.put(slot * 2 + 1, value);
+
+        return previous;
+    }
+
+    /**
+     * @return the value of the key, or -1 when absent
+     */
+    public long get(long key) {
+        long k = key == EMPTY ? ZERO_KEY : key;
+        int slot = this.slot(k);
+
+        return table.get(slot * 2) == EMPTY ? -1 : table.get(slot * 2 + 1);
+    }
+
+    public long memory() {
+        return (long) capacity * 2 * Long.BYTES;
+    }
+
+    // the slot of the key, or the empty slot where it belongs
+    private int slot(long key) {
+        int mask = capacity - 1;
+        int slot = (int) (mix(key) & mask);
+
+        while (true) {
+            long current = table.get(slot * 2);
+            if (current == EMPTY || current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        LongBuffer previous = table;
+        int previousCapacity = capacity;
+
+        capacity = capacity << 1;
+        table = allocate(capacity);
+        size = 0;
+
+        for (int i = 0; i < previousCapacity; i++) {
+            long key = previous.get(i * 2);
+            if (key != EMPTY) {
+                int slot = this.slot(key);
+                table.put(slot * 2, key);
+                table.put(slot * 2 + 1, previous.get(i * 2 + 1));
+                size++;
+            }
+        }
+    }
+
+    private static LongBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * 2 * Long.BYTES).asLongBuffer();
+    }
+
+    static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
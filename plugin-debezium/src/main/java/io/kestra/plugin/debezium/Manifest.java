@@ -0,0 +1,151 @@
+package io.kestra.plugin.debezium;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+
+import io.debezium.data.Envelope;
+import io.kestra.core.utils.Hashing;
+import io.kestra.plugin.debezium.models.StreamManifest;
+
+/**
+ * Statistics of each stream, gathered while capturing so the outputs never need to be read again: changes by
+ * operation, source timestamps and positions, and row schemas. The changes are recorded as they are captured, before
+ * compaction, sorting or aggregation; the rows and size of the output files are only known once they are written.
+ */
+public class Manifest {
+    public static final String MANIFEST_FILE = "manifest.json";
+
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    private final Map<Schema, String> fingerprints = new ConcurrentHashMap<>();
+
+    public void record(String stream, SourceRecord record) {
+        Struct value = record.value() instanceof Struct struct ? struct : null;
+        Schema schema = record.valueSchema();
+
+        String operation = "OTHER";
+        Long timestamp = null;
+        Schema rowSchema = schema;
+
+        if (value != null && schema != null && schema.type() == Schema.Type.STRUCT && schema.field(Envelope.FieldName.OPERATION) != null) {
+            Object code = value.get(Envelope.FieldName.OPERATION);
+            Envelope.Operation op = code != null ? Envelope.Operation.forCode(code.toString()) : null;
+            operation = op != null ? op.name() : String.valueOf(code);
+
+            Field source = schema.field(Envelope.FieldName.SOURCE);
+            if (source != null && value.get(source) instanceof Struct sourceStruct && sourceStruct.schema().field("ts_ms") != null) {
+                timestamp = sourceStruct.getInt64("ts_ms");
+            }
+
+            Field after = schema.field(Envelope.FieldName.AFTER);
+            rowSchema = after != null ? after.schema() : schema.field(Envelope.FieldName.BEFORE) != null ? schema.field(Envelope.FieldName.BEFORE).schema() : schema;
+        }
+
+        String fingerprint = rowSchema != null ? fingerprints.computeIfAbsent(rowSchema, s -> Hashing.hashToString(describe(s))) : null;
+
+        streams.computeIfAbsent(stream, s -> new Stream()).add(operation, timestamp, record.sourceOffset(), fingerprint);
+    }
+
+    /**
+     * @param files the output files of each stream
+     * @param bytes the size of the output files of each stream
+     * @param rows the rows of the output files of each stream
+     */
+    public Map<String, StreamManifest> build(Map<String, List<URI>> files, Map<String, Long> bytes, Map<String, Long> rows) {
+        Map<String, StreamManifest> manifest = new TreeMap<>();
+
+        streams.forEach((name, stream) -> {
+            synchronized (stream) {
+                manifest.put(name, StreamManifest.builder()
+                    .uris(files.getOrDefault(name, List.of()))
+                    .records(stream.records)
+                    .operations(stream.operations)
+                    .rows(rows.getOrDefault(name, 0L))
+                    .bytes(bytes.getOrDefault(name, 0L))
+                    .minTimestamp(stream.minTimestamp != null ? Instant.ofEpochMilli(stream.minTimestamp) : null)
+                    .maxTimestamp(stream.maxTimestamp != null ? Instant.ofEpochMilli(stream.maxTimestamp) : null)
+                    .firstPosition(stream.firstPosition)
+                    .lastPosition(stream.lastPosition)
+                    .schemas(new ArrayList<>(stream.schemas))
+                    .build()
+                );
+            }
+        });
+
+        return manifest;
+    }
+
+    // the names, types and optionality of the fields, recursively
+    static String describe(Schema schema) {
+        StringBuilder description = new StringBuilder()
+            .append(schema.name() != null ? schema.name() : "")
+            .append(':')
+            .append(schema.type())
+            .append(schema.isOptional() ? "?" : "");
+
+        switch (schema.type()) {
+            case STRUCT -> {
+                description.append('{');
+                for (Field field : schema.fields()) {
+                    description.append(field.name()).append('=').append(describe(field.schema())).append(',');
+                }
+                description.append('}');
+            }
+            case ARRAY -> description.append('[').append(describe(schema.valueSchema())).append(']');
+            case MAP -> description.append('<').append(describe(schema.keySchema())).append(',').append(describe(schema.valueSchema())).append('>');
+            default -> { }
+        }
+
+        return description.toString();
+    }
+
+    private static class Stream {
+        private long records;
+
+        private final Map<String, Long> operations = new TreeMap<>();
+
+        private Long minTimestamp;
+
+        private Long maxTimestamp;
+
+        private Map<String, Object> firstPosition;
+
+        private Map<String, Object> lastPosition;
+
+        private final Set<String> schemas = new LinkedHashSet<>();
+
+        private synchronized void add(String operation, Long timestamp, Map<String, ?> position, String fingerprint) {
+            records++;
+            operations.merge(operation, 1L, Long::sum);
+
+            if (timestamp != null) {
+                minTimestamp = minTimestamp == null ? timestamp : Math.min(minTimestamp, timestamp);
+                maxTimestamp = maxTimestamp == null ? timestamp : Math.max(maxTimestamp, timestamp);
+            }
+
+            if (position != null) {
+                lastPosition = new LinkedHashMap<>(position);
+                if (firstPosition == null) {
+                    firstPosition = lastPosition;
+                }
+            }
+
+            if (fingerprint != null) {
+                schemas.add(fingerprint);
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.time.*;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.kafka.connect.data.*;
@@ -25,8 +27,27 @@ public class MapConverter {
     private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
 
     public static Pair<Message, Message> convert(SourceRecord record) {
+        return convert(record, field -> true);
+    }
+
+    /**
+     * Converts the record, only converting the envelope fields accepted by the filter: the others are left null, so
+     * the parts of the change event the output doesn't read, like the before image of an update, are never converted.
+     */
+    public static Pair<Message, Message> convert(SourceRecord record, Predicate<String> envelopeFields) {
+        return convert(record, envelopeFields, null);
+    }
+
+    /**
+     * Converts the record, only reading the given fields of the before and after images.
+     *
+     * @param rowFields the fields to read for each row schema, null to read them all
+     */
+    public static Pair<Message, Message> convert(SourceRecord record, Predicate<String> envelopeFields, Function<Schema, List<Field>> rowFields) {
         Object key = record.keySchema() == null ? MapConverter.convert(record.keySchema(), record.key()) : null;
-        Object value = MapConverter.convert(record.valueSchema(), record.value());
+        Object value = isEnvelope(record.valueSchema(), record.value()) ?
+            convertEnvelope(record.valueSchema(), (Struct) record.value(), envelopeFields, rowFields) :
+            MapConverter.convert(record.valueSchema(), record.value());
 
         return Pair.of(
             key != null ? MAPPER.convertValue(key, Message.class) : null,
@@ -34,6 +55,36 @@ public class MapConverter {
         );
     }
 
+    private static boolean isEnvelope(Schema schema, Object value) {
+        return value instanceof Struct && schema != null && schema.name() != null && io.debezium.data.Envelope.isEnvelopeSchema(schema);
+    }
+
+    private static Envelope convertEnvelope(Schema schema, Struct struct, Predicate<String> envelopeFields, Function<Schema, List<Field>> rowFields) {
+        if (!struct.schema().equals(schema)) {
+            throw new IllegalArgumentException("Mismatching schema.");
+        }
+
+        Map<String, Object> obj = new LinkedHashMap<>();
+        for (Field field : schema.fields()) {
+            if (!envelopeFields.test(field.name())) {
+                continue;
+            }
+
+            boolean image = field.name().equals(io.debezium.data.Envelope.FieldName.BEFORE) || field.name().equals(io.debezium.data.Envelope.FieldName.AFTER);
+            if (image && rowFields != null && struct.get(field) instanceof Struct row) {
+                Map<String, Object> projected = new LinkedHashMap<>();
+                for (Field rowField : rowFields.apply(row.schema())) {
+                    projected.put(rowField.name(), convert(rowField.schema(), row.get(rowField)));
+                }
+                obj.put(field.name(), projected);
+            } else {
+                obj.put(field.name(), convert(field.schema(), struct.get(field)));
+            }
+        }
+
+        return MAPPER.convertValue(obj, Envelope.class);
+    }
+
     @SuppressWarnings("RedundantCast")
     public static Object convert(Schema schema, Object value) {
         if (value == null) {
@@ -0,0 +1,149 @@
+package io.kestra.plugin.debezium;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import io.kestra.core.exceptions.ResourceExpiredException;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * The latest row of each key of the captured tables, kept in internal storage across runs.
+ *
+ * Each run appends the changes it captured to a new segment per stream: a file of entries sorted by key, holding the
+ * last row of each key changed by the run, or a tombstone for the deleted keys. The segments of a stream are listed
+ * in the KV store next to the state of the capture, oldest first. Reading the state merges the segments, the newest
+ * entry of each key winning; once a stream has too many segments, they are merged into a single one, dropping the
+ * tombstones.
+ *
+ * The rows are the output rows of the capture, stored as {@link ExternalSorter} entries; the changes of a run are
+ * sorted with a bounded memory, spilling to the working directory.
+ */
+public class MaterializedState {
+    // the KV entry listing the segments of each stream
+    public static final String MATERIALIZED_STATE_FILE = "debezium-materialized.dat";
+
+    private final RunContext runContext;
+
+    private final long bufferSize;
+
+    private final Map<String, ExternalSorter> changes = new ConcurrentHashMap<>();
+
+    /**
+     * @param bufferSize the memory used to sort the changes of each stream before spilling them to disk
+     */
+    public MaterializedState(RunContext runContext, long bufferSize) {
+        this.runContext = runContext;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Records the change of a key, the row being null for deletes. Changes must be added in the order they were captured.
+     */
+    public void add(String stream, List<Object> key, Map<String, Object> row, long size) throws IOException {
+        changes.computeIfAbsent(stream, s -> new ExternalSorter(runContext.workingDir().path(), bufferSize, true)).add(key, row, size);
+    }
+
+    /**
+     * Stores the changes of the run as new segments, merges the streams having more than {@code maxSegments} segments
+     * and updates the segment list.
+     *
+     * @param snapshot whether to publish the full state of each stream
+     * @return the full state of each stream, rows only, when requested
+     */
+    public Map<String, URI> commit(String kvKey, int maxSegments, boolean snapshot) throws IOException, ResourceExpiredException {
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+        Map<String, List<String>> segments = segments(kvStore, kvKey);
+        List<URI> merged = new ArrayList<>();
+
+        for (Map.Entry<String, ExternalSorter> stream : changes.entrySet()) {
+            File segment = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(segment))) {
+                stream.getValue().sort(entry -> FileSerde.write(outputStream, entry));
+            }
+
+            segments.computeIfAbsent(stream.getKey(), k -> new ArrayList<>()).add(runContext.storage().putFile(segment).toString());
+        }
+
+        for (Map.Entry<String, List<String>> stream : segments.entrySet()) {
+            if (stream.getValue().size() > maxSegments) {
+                File segment = this.merge(stream.getValue(), false);
+
+                merged.addAll(stream.getValue().stream().map(URI::create).toList());
+                stream.setValue(new ArrayList<>(List.of(runContext.storage().putFile(segment).toString())));
+            }
+
+            runContext.metric(Counter.of("materialized.segments", stream.getValue().size(), "source", stream.getKey()));
+        }
+
+        Map<String, URI> snapshots = new LinkedHashMap<>();
+        if (snapshot) {
+            for (Map.Entry<String, List<String>> stream : segments.entrySet()) {
+                snapshots.put(stream.getKey(), runContext.storage().putFile(this.merge(stream.getValue(), true)));
+            }
+        }
+
+        kvStore.put(kvKey, new KVValueAndMetadata(null, segments));
+
+        // only once the segment list no longer references them
+        for (URI uri : merged) {
+            runContext.storage().deleteFile(uri);
+        }
+
+        return snapshots;
+    }
+
+    // merges the segments, oldest first, into a single segment or the rows of the stream; tombstones are dropped
+    private File merge(List<String> segments, boolean rows) throws IOException {
+        File merged = runContext.workingDir().createTempFile(".ion").toFile();
+        List<InputStream> inputStreams = new ArrayList<>();
+
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(merged))) {
+            List<MappingIterator<Map<String, Object>>> iterators = new ArrayList<>();
+            for (String segment : segments) {
+                InputStream inputStream = runContext.storage().getFile(URI.create(segment));
+                inputStreams.add(inputStream);
+                iterators.add(ExternalSorter.reader(inputStream));
+            }
+
+            ExternalSorter.merge(iterators, true, entry -> {
+                if (ExternalSorter.rowOf(entry) != null) {
+                    FileSerde.write(outputStream, rows ? ExternalSorter.rowOf(entry) : entry);
+                }
+            });
+        } finally {
+            for (InputStream inputStream : inputStreams) {
+                inputStream.close();
+            }
+        }
+
+        return merged;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, List<String>> segments(KVStore kvStore, String key) throws IOException, ResourceExpiredException {
+        var value = kvStore.getValue(key);
+        Map<String, List<String>> segments = new LinkedHashMap<>();
+
+        if (value.isPresent() && value.get().value() instanceof Map<?, ?> map) {
+            ((Map<String, List<String>>) map).forEach((stream, uris) -> segments.put(stream, new ArrayList<>(uris)));
+        }
+
+        return segments;
+    }
+}
@@ -0,0 +1,201 @@
+package io.kestra.plugin.debezium;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import org.slf4j.Logger;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import lombok.Getter;
+
+/**
+ * Watches the heap of the worker, shared by all the captures running on it, and pauses the consumers under memory pressure.
+ *
+ * The pressure is the heap occupancy measured right after each garbage collection, i.e. the live set, so the usual
+ * sawtooth of allocations never pauses a capture. A consumer is also paused when the bytes it buffers itself exceed its
+ * own limit. A paused consumer blocks in {@code handleBatch}: the engine queue fills up and the engine stops polling the
+ * source, until the pressure goes back under the resume threshold.
+ */
+public class MemoryGovernor {
+    private static final MemoryGovernor INSTANCE = new MemoryGovernor();
+
+    private static final long CHECK_INTERVAL_MILLIS = 100;
+
+    // without a collection for that long, the current usage is checked instead: it can only be above the live set
+    private static final long STALE_GC_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+
+    private volatile double liveRatio;
+
+    private volatile long lastGcNanos = System.nanoTime();
+
+    private final Object gcSignal = new Object();
+
+    private final DoubleSupplier pressure;
+
+    private MemoryGovernor() {
+        this.pressure = this::heapPressure;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(
+                    (notification, handback) -> {
+                        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                            this.onGc(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+                        }
+                    },
+                    null,
+                    null
+                );
+            }
+        }
+    }
+
+    // with the given heap pressure instead of the measured one
+    MemoryGovernor(DoubleSupplier pressure) {
+        this.pressure = pressure;
+    }
+
+    public static MemoryGovernor instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param pauseThreshold the heap occupancy, between 0 and 1, above which the consumer is paused
+     * @param resumeThreshold the heap occupancy under which a paused consumer resumes, lower than {@code pauseThreshold}
+     * @param maxBufferedBytes the bytes the consumer may buffer before being paused, null for no limit
+     */
+    public Registration register(Logger logger, double pauseThreshold, double resumeThreshold, Long maxBufferedBytes) {
+        Registration registration = new Registration(logger, pauseThreshold, Math.min(resumeThreshold, pauseThreshold), maxBufferedBytes);
+        registrations.add(registration);
+
+        return registration;
+    }
+
+    /**
+     * The bytes buffered by all the consumers of the worker.
+     */
+    public long bufferedBytes() {
+        return registrations.stream().mapToLong(r -> r.bufferedBytes.get()).sum();
+    }
+
+    private void onGc(GarbageCollectionNotificationInfo info) {
+        long used = info.getGcInfo().getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+
+        liveRatio = this.ratio(used);
+        lastGcNanos = System.nanoTime();
+
+        synchronized (gcSignal) {
+            gcSignal.notifyAll();
+        }
+    }
+
+    private double heapPressure() {
+        if (System.nanoTime() - lastGcNanos > STALE_GC_NANOS) {
+            liveRatio = Math.min(liveRatio, this.ratio(memory.getHeapMemoryUsage().getUsed()));
+        }
+
+        return liveRatio;
+    }
+
+    private double ratio(long used) {
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        long max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+
+        return max > 0 ? (double) used / max : 0;
+    }
+
+    public class Registration implements AutoCloseable {
+        private final Logger logger;
+
+        private final double pauseThreshold;
+
+        private final double resumeThreshold;
+
+        private final Long maxBufferedBytes;
+
+        private final AtomicLong bufferedBytes = new AtomicLong();
+
+        @Getter
+        private final AtomicLong pauses = new AtomicLong();
+
+        @Getter
+        private final AtomicLong pausedNanos = new AtomicLong();
+
+        private Registration(Logger logger, double pauseThreshold, double resumeThreshold, Long maxBufferedBytes) {
+            this.logger = logger;
+            this.pauseThreshold = pauseThreshold;
+            this.resumeThreshold = resumeThreshold;
+            this.maxBufferedBytes = maxBufferedBytes;
+        }
+
+        public void buffered(long bytes) {
+            bufferedBytes.addAndGet(bytes);
+        }
+
+        public void released(long bytes) {
+            bufferedBytes.addAndGet(-bytes);
+        }
+
+        /**
+         * Blocks while the heap or the buffers of this consumer are above their limits.
+         */
+        public void awaitCapacity() throws InterruptedException {
+            if (!this.overPause()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            pauses.incrementAndGet();
+            logger.warn(
+                "Pausing the capture under memory pressure: heap at {}% after GC, {} bytes buffered",
+                Math.round(pressure.getAsDouble() * 100),
+                bufferedBytes.get()
+            );
+
+            while (!this.underResume()) {
+                synchronized (gcSignal) {
+                    gcSignal.wait(CHECK_INTERVAL_MILLIS);
+                }
+            }
+
+            long paused = System.nanoTime() - start;
+            pausedNanos.addAndGet(paused);
+            logger.info("Resuming the capture after {} ms of memory pressure", TimeUnit.NANOSECONDS.toMillis(paused));
+        }
+
+        /**
+         * Whether the heap or the buffers of this consumer are above their limits, i.e. the next batch would pause.
+         */
+        public boolean underPressure() {
+            return this.overPause();
+        }
+
+        private boolean overPause() {
+            return pressure.getAsDouble() >= pauseThreshold || (maxBufferedBytes != null && bufferedBytes.get() > maxBufferedBytes);
+        }
+
+        private boolean underResume() {
+            // buffers resume with the same hysteresis as the heap
+            return pressure.getAsDouble() < resumeThreshold &&
+                (maxBufferedBytes == null || bufferedBytes.get() <= maxBufferedBytes * (resumeThreshold / pauseThreshold));
+        }
+
+        @Override
+        public void close() {
+            registrations.remove(this);
+        }
+    }
+}
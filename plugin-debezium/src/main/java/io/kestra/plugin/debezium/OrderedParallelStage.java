@@ -0,0 +1,79 @@
+package io.kestra.plugin.debezium;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Maps a batch on a fork-join pool and returns the results in the order of the inputs.
+ *
+ * The batch is cut in contiguous chunks, one per worker, each converted sequentially: results are then
+ * concatenated chunk by chunk, so the downstream writes and offset commits still happen in source order.
+ * With a parallelism of 1, or for batches too small to be worth splitting, the batch is mapped on the caller thread.
+ */
+public class OrderedParallelStage implements AutoCloseable {
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    private final int parallelism;
+
+    private final ForkJoinPool pool;
+
+    public OrderedParallelStage(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+    }
+
+    public <I, O> List<O> map(List<I> inputs, StageFunction<I, O> function) throws Exception {
+        int chunks = Math.min(parallelism, Math.max(inputs.size() / MIN_CHUNK_SIZE, 1));
+
+        if (pool == null || chunks <= 1) {
+            return mapChunk(inputs, function);
+        }
+
+        int chunkSize = (inputs.size() + chunks - 1) / chunks;
+
+        List<Future<List<O>>> futures = new ArrayList<>(chunks);
+        for (int start = 0; start < inputs.size(); start += chunkSize) {
+            List<I> chunk = inputs.subList(start, Math.min(start + chunkSize, inputs.size()));
+            futures.add(pool.submit(() -> mapChunk(chunk, function)));
+        }
+
+        List<O> results = new ArrayList<>(inputs.size());
+        for (Future<List<O>> future : futures) {
+            try {
+                results.addAll(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception exception) {
+                    throw exception;
+                }
+
+                throw e;
+            }
+        }
+
+        return results;
+    }
+
+    private static <I, O> List<O> mapChunk(List<I> inputs, StageFunction<I, O> function) throws Exception {
+        List<O> results = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            results.add(function.apply(input));
+        }
+
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    public interface StageFunction<I, O> {
+        O apply(I input) throws Exception;
+    }
+}
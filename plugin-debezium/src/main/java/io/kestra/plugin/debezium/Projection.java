@@ -0,0 +1,113 @@
+package io.kestra.plugin.debezium;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * The fields of the output rows of a table: the columns, and the fields added to the row like the deleted flag or the
+ * metadata, nested fields being selected with a dot, e.g. {@code metadata.source.lsn}.
+ *
+ * The columns are selected before the conversion: the fields of each row schema are resolved once, and only those are
+ * read from the row structs.
+ */
+public class Projection {
+    // a null node keeps the whole field
+    private final Map<String, Object> tree = new LinkedHashMap<>();
+
+    private final Map<Schema, List<Field>> fields = new ConcurrentHashMap<>();
+
+    public Projection(List<String> paths) {
+        for (String path : paths) {
+            Map<String, Object> node = tree;
+            String[] parts = path.split("\\.");
+
+            for (int i = 0; i < parts.length; i++) {
+                boolean leaf = i == parts.length - 1;
+
+                if (leaf) {
+                    node.put(parts[i], null);
+                } else if (node.containsKey(parts[i]) && node.get(parts[i]) == null) {
+                    // the whole field is already kept
+                    break;
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> child = (Map<String, Object>) node.computeIfAbsent(parts[i], k -> new LinkedHashMap<>());
+                    node = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * The fields of the row schema to read, in the order of the schema.
+     */
+    public List<Field> fields(Schema rowSchema) {
+        return fields.computeIfAbsent(rowSchema, schema -> schema.fields().stream()
+            .filter(field -> tree.containsKey(field.name()))
+            .toList()
+        );
+    }
+
+    /**
+     * Removes the fields not selected from the output row, and from the row wrapped in it.
+     */
+    public Map<String, Object> apply(Map<String, Object> row, String wrapField) {
+        Map<String, Object> result = prune(row, tree);
+
+        if (wrapField != null && row.get(wrapField) instanceof Map<?, ?> wrapped) {
+            result.put(wrapField, prune(wrapped, tree));
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> prune(Map<?, ?> map, Map<String, Object> node) {
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        map.forEach((key, value) -> {
+            String name = String.valueOf(key);
+            if (!node.containsKey(name)) {
+                return;
+            }
+
+            Map<String, Object> child = (Map<String, Object>) node.get(name);
+            if (child == null || value == null) {
+                result.put(name, value);
+            } else if (value instanceof Map<?, ?> nested) {
+                result.put(name, prune(nested, child));
+            } else {
+                // a model, like the source of the metadata
+                result.put(name, prune(JacksonMapper.toMap(value), child));
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * The projections by table, each table being a regular expression matched as the entries of the include lists.
+     */
+    public record Tables(List<Map.Entry<List<Pattern>, Projection>> projections) {
+        public static Tables of(Map<String, List<String>> projections) {
+            return new Tables(projections.entrySet().stream()
+                .map(e -> Map.entry(List.of(TablePatterns.pattern(e.getKey())), new Projection(e.getValue())))
+                .toList()
+            );
+        }
+
+        public Projection find(String dataCollection) {
+            return projections.stream()
+                .filter(e -> TablePatterns.matches(e.getKey(), dataCollection))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        }
+    }
+}
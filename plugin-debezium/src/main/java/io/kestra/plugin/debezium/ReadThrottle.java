@@ -0,0 +1,129 @@
+package io.kestra.plugin.debezium;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import lombok.Getter;
+
+/**
+ * Limits the rate at which the engine reads the source, in rows and bytes per second.
+ *
+ * The consumer waits before each batch until the batch fits in the rate: the engine queue then fills up and the
+ * engine stops polling, so the limit applies to the source reads, both during snapshot and streaming. Up to one
+ * second of unused rate can be consumed at once.
+ *
+ * When adaptive, the limit also backs off from the source latency. The time the consumer waits for a full batch is
+ * the time the source took to return it: when the per-row fetch time rises above twice the fastest one seen, the
+ * source is considered loaded and the rate is cut by 30%; otherwise it grows back by 5% of the limit per batch.
+ */
+public class ReadThrottle {
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final double MIN_FACTOR = 0.1;
+    private static final double DECREASE = 0.7;
+    private static final double INCREASE = 0.05;
+    private static final double LOADED_RATIO = 2;
+    private static final double EWMA_WEIGHT = 0.3;
+
+    // a batch already waiting in the engine queue says nothing about the source
+    private static final long MIN_FETCH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Integer rowsPerSecond;
+
+    private final Long bytesPerSecond;
+
+    private final boolean adaptive;
+
+    private final int fullBatchSize;
+
+    private final LongSupplier clock;
+
+    private final Sleeper sleeper;
+
+    private long nextFreeNanos;
+
+    private long lastCompletedNanos = -1;
+
+    private double baselineNanosPerRow = Double.MAX_VALUE;
+
+    private double averageNanosPerRow = -1;
+
+    @Getter
+    private double factor = 1;
+
+    @Getter
+    private long throttledNanos;
+
+    public ReadThrottle(Integer rowsPerSecond, Long bytesPerSecond, boolean adaptive, int maxBatchSize) {
+        this(rowsPerSecond, bytesPerSecond, adaptive, maxBatchSize, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    ReadThrottle(Integer rowsPerSecond, Long bytesPerSecond, boolean adaptive, int maxBatchSize, LongSupplier clock, Sleeper sleeper) {
+        this.rowsPerSecond = rowsPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+        this.adaptive = adaptive;
+        this.fullBatchSize = (int) (maxBatchSize * 0.9);
+        this.clock = clock;
+        this.sleeper = sleeper;
+        this.nextFreeNanos = clock.getAsLong();
+    }
+
+    /**
+     * Waits until the batch fits in the rate.
+     */
+    public synchronized void acquire(int rows, long bytes) throws InterruptedException {
+        long now = clock.getAsLong();
+
+        if (adaptive && lastCompletedNanos >= 0 && rows >= fullBatchSize && rows > 0 && now - lastCompletedNanos >= MIN_FETCH_NANOS) {
+            this.adapt((double) (now - lastCompletedNanos) / rows);
+        }
+
+        double seconds = 0;
+        if (rowsPerSecond != null && rowsPerSecond > 0) {
+            seconds = Math.max(seconds, rows / (rowsPerSecond * factor));
+        }
+        if (bytesPerSecond != null && bytesPerSecond > 0) {
+            seconds = Math.max(seconds, bytes / (bytesPerSecond * factor));
+        }
+
+        nextFreeNanos = Math.max(nextFreeNanos, now - BURST_NANOS);
+        long start = nextFreeNanos;
+        nextFreeNanos += (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+
+        if (start > now) {
+            sleeper.sleep(start - now);
+            throttledNanos += start - now;
+        }
+    }
+
+    /**
+     * Marks the end of the processing of a batch, the wait for the next one being the source fetch time.
+     */
+    public synchronized void completed() {
+        lastCompletedNanos = clock.getAsLong();
+    }
+
+    public Double effectiveRowsPerSecond() {
+        return rowsPerSecond != null ? rowsPerSecond * factor : null;
+    }
+
+    public Double effectiveBytesPerSecond() {
+        return bytesPerSecond != null ? bytesPerSecond * factor : null;
+    }
+
+    private void adapt(double nanosPerRow) {
+        averageNanosPerRow = averageNanosPerRow < 0 ? nanosPerRow : EWMA_WEIGHT * nanosPerRow + (1 - EWMA_WEIGHT) * averageNanosPerRow;
+        baselineNanosPerRow = Math.min(baselineNanosPerRow, nanosPerRow);
+
+        if (averageNanosPerRow > LOADED_RATIO * baselineNanosPerRow) {
+            factor = Math.max(MIN_FACTOR, factor * DECREASE);
+        } else {
+            factor = Math.min(1, factor + INCREASE);
+        }
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+}
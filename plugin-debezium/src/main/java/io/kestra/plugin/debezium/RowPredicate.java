@@ -0,0 +1,542 @@
+package io.kestra.plugin.debezium;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * A condition on the change events, evaluated on the raw envelope struct before any conversion.
+ *
+ * The expression is parsed once, then compiled once per envelope schema: the fields it reads are resolved to schema
+ * fields, so evaluating a record only reads these fields from its struct.
+ *
+ * A column name reads the row image, the after one or the before one for deletes; {@code before.}, {@code after.} and
+ * {@code source.} read a field of the envelope and {@code op} the operation code. Comparisons use {@code =}, {@code !=},
+ * {@code <>}, {@code <}, {@code <=}, {@code >}, {@code >=}, {@code IS NULL}, {@code IS NOT NULL}, and are combined with
+ * {@code AND}, {@code OR}, {@code NOT} and parentheses; {@code changed(column)} is true when an update changed the
+ * column, or when the before image is not available.
+ *
+ * Date, time and timestamp columns are compared as such, whatever their Connect or Debezium encoding, with ISO-8601
+ * strings, e.g. {@code created_at >= '2024-01-31T12:00:00Z'}; timestamps without offset being UTC, as the epoch values
+ * Debezium sends for them. Comparing them with anything else is rejected when the expression is compiled.
+ */
+public class RowPredicate {
+    private static final String BEFORE = io.debezium.data.Envelope.FieldName.BEFORE;
+    private static final String AFTER = io.debezium.data.Envelope.FieldName.AFTER;
+    private static final String OPERATION = io.debezium.data.Envelope.FieldName.OPERATION;
+    private static final String DELETE = io.debezium.data.Envelope.Operation.DELETE.code();
+
+    private final String expression;
+
+    private final Condition condition;
+
+    private final Map<Schema, Predicate<Struct>> compiled = new ConcurrentHashMap<>();
+
+    public RowPredicate(String expression) {
+        this.expression = expression;
+        this.condition = new Parser(expression).parse();
+    }
+
+    public boolean test(Schema schema, Struct value) {
+        return compiled.computeIfAbsent(schema, this::compile).test(value);
+    }
+
+    private Predicate<Struct> compile(Schema schema) {
+        try {
+            return condition.compile(schema);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid row filter '" + expression + "': " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private interface Condition {
+        Predicate<Struct> compile(Schema schema);
+    }
+
+    private interface Operand {
+        Function<Struct, Object> compile(Schema schema);
+
+        // the schema of the values read, null when unknown
+        default Schema valueSchema(Schema schema) {
+            return null;
+        }
+    }
+
+    private record Literal(Object value) implements Operand {
+        @Override
+        public Function<Struct, Object> compile(Schema schema) {
+            return struct -> value;
+        }
+    }
+
+    private record Path(List<String> parts) implements Operand {
+        @Override
+        public Function<Struct, Object> compile(Schema schema) {
+            if (this.envelopeField(schema)) {
+                return accessor(schema, parts);
+            }
+
+            // a column of the row image
+            Function<Struct, Object> after = accessor(schema, prepend(AFTER));
+            Function<Struct, Object> before = accessor(schema, prepend(BEFORE));
+            Field operation = schema.field(OPERATION);
+
+            return struct -> operation != null && DELETE.equals(struct.get(operation)) ? before.apply(struct) : after.apply(struct);
+        }
+
+        @Override
+        public Schema valueSchema(Schema schema) {
+            Schema current = schema;
+
+            // the before image of a delete has the schema of the after one
+            for (String part : this.envelopeField(schema) ? parts : this.prepend(AFTER)) {
+                if (current.type() != Schema.Type.STRUCT || current.field(part) == null) {
+                    return null;
+                }
+                current = current.field(part).schema();
+            }
+
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(".", parts);
+        }
+
+        // the operation, or a field of a struct of the envelope; otherwise a column of the row image
+        private boolean envelopeField(Schema schema) {
+            String first = parts.getFirst();
+
+            return (parts.size() == 1 && first.equals(OPERATION)) ||
+                (parts.size() > 1 && schema.field(first) != null && schema.field(first).schema().type() == Schema.Type.STRUCT);
+        }
+
+        private List<String> prepend(String image) {
+            List<String> path = new ArrayList<>();
+            path.add(image);
+            path.addAll(parts);
+            return path;
+        }
+
+        private static Function<Struct, Object> accessor(Schema schema, List<String> path) {
+            Field field = schema.field(path.getFirst());
+            if (field == null) {
+                return struct -> null;
+            }
+
+            if (path.size() == 1) {
+                return struct -> struct.get(field);
+            }
+
+            Schema child = field.schema();
+            if (child.type() != Schema.Type.STRUCT) {
+                return struct -> null;
+            }
+
+            Function<Struct, Object> next = accessor(child, path.subList(1, path.size()));
+
+            return struct -> struct.get(field) instanceof Struct nested ? next.apply(nested) : null;
+        }
+    }
+
+    private record Comparison(Operand left, String operator, Operand right) implements Condition {
+        @Override
+        public Predicate<Struct> compile(Schema schema) {
+            Function<Struct, Object> l = operand(left, right, schema);
+            Function<Struct, Object> r = operand(right, left, schema);
+
+            return switch (operator) {
+                case "=" -> struct -> equal(l.apply(struct), r.apply(struct));
+                case "!=", "<>" -> struct -> {
+                    Object a = l.apply(struct);
+                    Object b = r.apply(struct);
+                    return a != null && b != null && !equal(a, b);
+                };
+                case "<" -> struct -> compare(l.apply(struct), r.apply(struct), c -> c < 0);
+                case "<=" -> struct -> compare(l.apply(struct), r.apply(struct), c -> c <= 0);
+                case ">" -> struct -> compare(l.apply(struct), r.apply(struct), c -> c > 0);
+                case ">=" -> struct -> compare(l.apply(struct), r.apply(struct), c -> c >= 0);
+                default -> throw new IllegalArgumentException("Unknown operator '" + operator + "'");
+            };
+        }
+    }
+
+    /**
+     * Reads an operand of a comparison, the temporal columns and the literals compared to them as {@code java.time} values.
+     */
+    private static Function<Struct, Object> operand(Operand operand, Operand other, Schema schema) {
+        Temporal temporal = Temporal.of(operand.valueSchema(schema));
+        Temporal otherTemporal = Temporal.of(other.valueSchema(schema));
+        Function<Struct, Object> value = operand.compile(schema);
+
+        if (temporal != null) {
+            if (other instanceof Path && (otherTemporal == null || !otherTemporal.type().equals(temporal.type()))) {
+                throw new IllegalArgumentException("the " + temporal.label() + " column '" + operand + "' can't be compared with '" + other + "'");
+            }
+
+            return struct -> {
+                Object raw = value.apply(struct);
+                return raw == null ? null : temporal.convert().apply(raw);
+            };
+        }
+
+        if (otherTemporal != null && operand instanceof Literal literal) {
+            Object parsed = otherTemporal.parse(literal.value(), other);
+            return struct -> parsed;
+        }
+
+        return value;
+    }
+
+    /**
+     * A date, time or timestamp logical type, converted to the {@code java.time} type its values are compared as.
+     */
+    private record Temporal(Class<?> type, Function<Object, Object> convert) {
+        private static Temporal of(Schema schema) {
+            if (schema == null || schema.name() == null) {
+                return null;
+            }
+
+            return switch (schema.name()) {
+                case io.debezium.time.Date.SCHEMA_NAME -> new Temporal(LocalDate.class, v -> LocalDate.ofEpochDay(((Number) v).longValue()));
+                case org.apache.kafka.connect.data.Date.LOGICAL_NAME -> new Temporal(LocalDate.class, v -> LocalDate.ofInstant(((java.util.Date) v).toInstant(), ZoneOffset.UTC));
+                case io.debezium.time.Timestamp.SCHEMA_NAME -> new Temporal(Instant.class, v -> Instant.ofEpochMilli(((Number) v).longValue()));
+                case io.debezium.time.MicroTimestamp.SCHEMA_NAME -> new Temporal(Instant.class, v -> Instant.EPOCH.plus(((Number) v).longValue(), ChronoUnit.MICROS));
+                case io.debezium.time.NanoTimestamp.SCHEMA_NAME -> new Temporal(Instant.class, v -> Instant.EPOCH.plusNanos(((Number) v).longValue()));
+                case io.debezium.time.ZonedTimestamp.SCHEMA_NAME -> new Temporal(Instant.class, v -> OffsetDateTime.parse((String) v).toInstant());
+                case org.apache.kafka.connect.data.Timestamp.LOGICAL_NAME -> new Temporal(Instant.class, v -> ((java.util.Date) v).toInstant());
+                case io.debezium.time.Time.SCHEMA_NAME -> new Temporal(LocalTime.class, v -> LocalTime.MIDNIGHT.plus(((Number) v).longValue(), ChronoUnit.MILLIS));
+                case io.debezium.time.MicroTime.SCHEMA_NAME -> new Temporal(LocalTime.class, v -> LocalTime.MIDNIGHT.plus(((Number) v).longValue(), ChronoUnit.MICROS));
+                case io.debezium.time.NanoTime.SCHEMA_NAME -> new Temporal(LocalTime.class, v -> LocalTime.MIDNIGHT.plusNanos(((Number) v).longValue()));
+                case org.apache.kafka.connect.data.Time.LOGICAL_NAME -> new Temporal(LocalTime.class, v -> LocalTime.ofInstant(((java.util.Date) v).toInstant(), ZoneOffset.UTC));
+                default -> null;
+            };
+        }
+
+        private String label() {
+            return type.equals(LocalDate.class) ? "date" : type.equals(LocalTime.class) ? "time" : "timestamp";
+        }
+
+        /**
+         * Parses a literal compared to a column of this type, from an ISO-8601 string.
+         */
+        private Object parse(Object literal, Operand column) {
+            if (literal == null) {
+                return null;
+            }
+
+            try {
+                if (literal instanceof String text) {
+                    if (type.equals(LocalDate.class)) {
+                        return LocalDate.parse(text);
+                    }
+
+                    if (type.equals(LocalTime.class)) {
+                        return LocalTime.parse(text);
+                    }
+
+                    if (!text.contains("T")) {
+                        return LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant();
+                    }
+
+                    var parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(text, ZonedDateTime::from, LocalDateTime::from);
+                    return parsed instanceof ZonedDateTime zoned ? zoned.toInstant() : ((LocalDateTime) parsed).toInstant(ZoneOffset.UTC);
+                }
+            } catch (DateTimeParseException e) {
+                // reported below
+            }
+
+            throw new IllegalArgumentException("the " + label() + " column '" + column + "' must be compared with an ISO-8601 " + label() + " string, found " + literal);
+        }
+    }
+
+    private record IsNull(Operand operand, boolean negated) implements Condition {
+        @Override
+        public Predicate<Struct> compile(Schema schema) {
+            Function<Struct, Object> value = operand.compile(schema);
+
+            return negated ? struct -> value.apply(struct) != null : struct -> value.apply(struct) == null;
+        }
+    }
+
+    private record Changed(String column) implements Condition {
+        @Override
+        public Predicate<Struct> compile(Schema schema) {
+            Function<Struct, Object> before = Path.accessor(schema, List.of(BEFORE, column));
+            Function<Struct, Object> after = Path.accessor(schema, List.of(AFTER, column));
+            Field beforeField = schema.field(BEFORE);
+
+            return struct -> beforeField == null || struct.get(beforeField) == null || !equal(before.apply(struct), after.apply(struct));
+        }
+    }
+
+    private record And(Condition left, Condition right) implements Condition {
+        @Override
+        public Predicate<Struct> compile(Schema schema) {
+            return left.compile(schema).and(right.compile(schema));
+        }
+    }
+
+    private record Or(Condition left, Condition right) implements Condition {
+        @Override
+        public Predicate<Struct> compile(Schema schema) {
+            return left.compile(schema).or(right.compile(schema));
+        }
+    }
+
+    private record Not(Condition condition) implements Condition {
+        @Override
+        public Predicate<Struct> compile(Schema schema) {
+            return condition.compile(schema).negate();
+        }
+    }
+
+    private static boolean equal(Object a, Object b) {
+        if (a == null || b == null) {
+            return false;
+        }
+
+        Object x = normalize(a);
+        Object y = normalize(b);
+
+        if (x instanceof BigDecimal dx && y instanceof BigDecimal dy) {
+            return dx.compareTo(dy) == 0;
+        }
+
+        return Objects.equals(x, y) || x.toString().equals(y.toString());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean compare(Object a, Object b, Predicate<Integer> result) {
+        if (a == null || b == null) {
+            return false;
+        }
+
+        Object x = normalize(a);
+        Object y = normalize(b);
+
+        if (x instanceof BigDecimal dx && y instanceof BigDecimal dy) {
+            return result.test(dx.compareTo(dy));
+        }
+
+        if (x instanceof Comparable cx && x.getClass().equals(y.getClass())) {
+            return result.test(cx.compareTo(y));
+        }
+
+        return result.test(x.toString().compareTo(y.toString()));
+    }
+
+    private static Object normalize(Object value) {
+        return switch (value) {
+            case BigDecimal decimal -> decimal;
+            case Byte b -> BigDecimal.valueOf(b);
+            case Short s -> BigDecimal.valueOf(s);
+            case Integer i -> BigDecimal.valueOf(i);
+            case Long l -> BigDecimal.valueOf(l);
+            case Float f -> BigDecimal.valueOf(f);
+            case Double d -> BigDecimal.valueOf(d);
+            case ByteBuffer buffer -> new String(bytes(buffer), StandardCharsets.UTF_8);
+            case byte[] bytes -> new String(bytes, StandardCharsets.UTF_8);
+            default -> value;
+        };
+    }
+
+    // the remaining bytes, without moving the buffer, which may be read-only or direct
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static class Parser {
+        private final String expression;
+
+        private final List<String> tokens;
+
+        private int position;
+
+        private Parser(String expression) {
+            this.expression = expression;
+            this.tokens = tokenize(expression);
+        }
+
+        private Condition parse() {
+            Condition condition = this.or();
+
+            if (position < tokens.size()) {
+                throw this.error("unexpected '" + tokens.get(position) + "'");
+            }
+
+            return condition;
+        }
+
+        private Condition or() {
+            Condition condition = this.and();
+            while (this.accept("OR")) {
+                condition = new Or(condition, this.and());
+            }
+            return condition;
+        }
+
+        private Condition and() {
+            Condition condition = this.not();
+            while (this.accept("AND")) {
+                condition = new And(condition, this.not());
+            }
+            return condition;
+        }
+
+        private Condition not() {
+            if (this.accept("NOT")) {
+                return new Not(this.not());
+            }
+
+            if (this.accept("(")) {
+                Condition condition = this.or();
+                this.expect(")");
+                return condition;
+            }
+
+            if (this.peek().equalsIgnoreCase("changed") && position + 1 < tokens.size() && tokens.get(position + 1).equals("(")) {
+                position += 2;
+                String column = this.next();
+                this.expect(")");
+                return new Changed(column);
+            }
+
+            Operand left = this.operand();
+
+            if (this.accept("IS")) {
+                boolean negated = this.accept("NOT");
+                this.expect("NULL");
+                return new IsNull(left, negated);
+            }
+
+            String operator = this.next();
+            if (!List.of("=", "!=", "<>", "<", "<=", ">", ">=").contains(operator)) {
+                throw this.error("expected a comparison operator, found '" + operator + "'");
+            }
+
+            return new Comparison(left, operator, this.operand());
+        }
+
+        private Operand operand() {
+            String token = this.next();
+
+            if (token.startsWith("'")) {
+                return new Literal(token.substring(1, token.length() - 1).replace("''", "'"));
+            }
+
+            if (Character.isDigit(token.charAt(0)) || (token.charAt(0) == '-' && token.length() > 1)) {
+                return new Literal(new BigDecimal(token));
+            }
+
+            return switch (token.toUpperCase(Locale.ROOT)) {
+                case "TRUE" -> new Literal(Boolean.TRUE);
+                case "FALSE" -> new Literal(Boolean.FALSE);
+                case "NULL" -> new Literal(null);
+                default -> new Path(Arrays.asList(token.split("\\.")));
+            };
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : "";
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw this.error("unexpected end");
+            }
+            return tokens.get(position++);
+        }
+
+        private boolean accept(String token) {
+            if (this.peek().equalsIgnoreCase(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!this.accept(token)) {
+                throw this.error("expected '" + token + "', found '" + this.peek() + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid row filter '" + expression + "': " + message);
+        }
+
+        private static List<String> tokenize(String expression) {
+            List<String> tokens = new ArrayList<>();
+            int i = 0;
+
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '\'') {
+                    int end = i + 1;
+                    while (end < expression.length() && (expression.charAt(end) != '\'' || (end + 1 < expression.length() && expression.charAt(end + 1) == '\''))) {
+                        end += expression.charAt(end) == '\'' ? 2 : 1;
+                    }
+                    if (end >= expression.length()) {
+                        throw new IllegalArgumentException("Invalid row filter '" + expression + "': unterminated string");
+                    }
+                    tokens.add(expression.substring(i, end + 1));
+                    i = end + 1;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if ("=!<>".indexOf(c) >= 0) {
+                    int end = i + 1;
+                    if (end < expression.length() && "=>".indexOf(expression.charAt(end)) >= 0) {
+                        end++;
+                    }
+                    tokens.add(expression.substring(i, end));
+                    i = end;
+                } else {
+                    int end = i;
+                    while (end < expression.length() && !Character.isWhitespace(expression.charAt(end)) && "()'=!<>".indexOf(expression.charAt(end)) < 0) {
+                        end++;
+                    }
+                    tokens.add(expression.substring(i, end));
+                    i = end;
+                }
+            }
+
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package io.kestra.plugin.debezium;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.kestra.core.exceptions.ResourceExpiredException;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.core.utils.IdUtils;
+
+/**
+ * Debezium signals sent through the file signal channel: the engine reads the signal file, one JSON signal per line,
+ * and truncates it once processed.
+ *
+ * Signals sent from Kestra, by a signal task, are queued in the KV store next to the state of the capture they target.
+ * The capture moves them to its signal file when it starts and, for realtime triggers, periodically while running;
+ * they are only removed from the queue once the engine has read them and the capture has saved its state.
+ */
+public final class Signals {
+    public static final String SIGNAL_FILE = "signals.txt";
+
+    // the KV entry holding the signals waiting for the capture, a list of signals
+    public static final String SIGNALS_STATE_FILE = "debezium-signals.dat";
+
+    static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
+
+    private Signals() {
+    }
+
+    /**
+     * A chunked, watermark-based snapshot of the data collections, running alongside the streaming.
+     *
+     * @param dataCollections regular expressions matching the fully-qualified names of the data collections
+     */
+    public static Map<String, Object> incrementalSnapshot(List<String> dataCollections) {
+        return incrementalSnapshot(dataCollections, null);
+    }
+
+    /**
+     * A chunked, watermark-based snapshot of the data collections, only reading the rows matching the filter.
+     *
+     * @param filter a condition on the rows of each data collection, in the query language of the source; null for all rows
+     */
+    public static Map<String, Object> incrementalSnapshot(List<String> dataCollections, String filter) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("data-collections", dataCollections);
+        data.put("type", "INCREMENTAL");
+
+        if (filter != null) {
+            data.put("additional-conditions", dataCollections.stream()
+                .map(dataCollection -> {
+                    Map<String, Object> condition = new LinkedHashMap<>();
+                    condition.put("data-collection", dataCollection);
+                    condition.put("filter", filter);
+                    return condition;
+                })
+                .toList()
+            );
+        }
+
+        return signal("execute-snapshot", data);
+    }
+
+    public static Map<String, Object> signal(String type, Map<String, Object> data) {
+        Map<String, Object> signal = new LinkedHashMap<>();
+        signal.put("id", IdUtils.create());
+        signal.put("type", type);
+        signal.put("data", data);
+
+        return signal;
+    }
+
+    public static void append(Path signalFile, Map<String, Object> signal) throws IOException {
+        Files.writeString(
+            signalFile,
+            JacksonMapper.ofJson().writeValueAsString(signal) + "\n",
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND
+        );
+    }
+
+    /**
+     * Queues a signal for the capture of the flow, until the capture has read it and saved its state.
+     *
+     * The KV store has no compare-and-set: a signal queued while a capture removes the signals it read is kept by
+     * {@link Delivery#acknowledge} re-reading the queue before removing them.
+     */
+    public static void enqueue(KVStore kvStore, String key, Map<String, Object> signal) throws IOException, ResourceExpiredException {
+        List<Map<String, Object>> queue = new ArrayList<>(queued(kvStore, key));
+        queue.add(signal);
+
+        kvStore.put(key, new KVValueAndMetadata(null, queue));
+    }
+
+    /**
+     * Drains the queued signals of a running capture every few seconds, on a daemon thread.
+     */
+    public static ScheduledExecutorService poll(RunContext runContext, Delivery delivery) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("debezium-signals").daemon(true).factory()
+        );
+
+        scheduler.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    delivery.drain();
+                } catch (Exception e) {
+                    runContext.logger().warn("Unable to read the queued Debezium signals: {}", e.getMessage());
+                }
+            },
+            POLL_INTERVAL.toMillis(),
+            POLL_INTERVAL.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+
+        return scheduler;
+    }
+
+    // the ids of the signals of the file, not read by the engine yet
+    private static Set<Object> pending(Path signalFile) throws IOException {
+        Set<Object> pending = new HashSet<>();
+        if (!Files.exists(signalFile)) {
+            return pending;
+        }
+
+        for (String line : Files.readAllLines(signalFile, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                pending.add(JacksonMapper.toMap(line).get("id"));
+            } catch (IOException e) {
+                // not a signal sent from Kestra
+            }
+        }
+
+        return pending;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> queued(KVStore kvStore, String key) throws IOException, ResourceExpiredException {
+        var value = kvStore.getValue(key);
+        if (value.isEmpty() || !(value.get().value() instanceof List<?> list)) {
+            return List.of();
+        }
+
+        return (List<Map<String, Object>>) list;
+    }
+
+    /**
+     * The signals of a capture moved from the KV queue to the signal file of its engine.
+     *
+     * A moved signal stays queued until it has been read by the engine and the capture has saved its state, so a run
+     * that fails, or never saves its state, leaves it for the next run instead of losing it.
+     */
+    public static class Delivery {
+        private final RunContext runContext;
+
+        private final String key;
+
+        private final Path signalFile;
+
+        // the ids of the signals moved to the signal file, still queued
+        private final Set<Object> moved = new HashSet<>();
+
+        public Delivery(RunContext runContext, String key, Path signalFile) {
+            this.runContext = runContext;
+            this.key = key;
+            this.signalFile = signalFile;
+        }
+
+        /**
+         * Moves the queued signals to the signal file, each one only once.
+         *
+         * @return the number of signals moved
+         */
+        public synchronized int drain() throws IOException, ResourceExpiredException {
+            KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+
+            int count = 0;
+            for (Map<String, Object> signal : queued(kvStore, key)) {
+                if (moved.add(signal.get("id"))) {
+                    append(signalFile, signal);
+                    runContext.logger().info("Received signal '{}' ({}): {}", signal.get("type"), signal.get("id"), signal.get("data"));
+                    count++;
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * Removes the moved signals the engine has read from the queue, to be called once the capture has saved its state.
+         */
+        public synchronized void acknowledge() {
+            if (moved.isEmpty()) {
+                return;
+            }
+
+            try {
+                Set<Object> pending = pending(signalFile);
+                Set<Object> read = moved.stream().filter(id -> !pending.contains(id)).collect(Collectors.toSet());
+                if (read.isEmpty()) {
+                    return;
+                }
+
+                KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+                List<Map<String, Object>> remaining = queued(kvStore, key).stream()
+                    .filter(signal -> !read.contains(signal.get("id")))
+                    .toList();
+
+                if (remaining.isEmpty()) {
+                    kvStore.delete(key);
+                } else {
+                    kvStore.put(key, new KVValueAndMetadata(null, remaining));
+                }
+
+                moved.removeAll(read);
+            } catch (Exception e) {
+                runContext.logger().warn("Unable to remove the read Debezium signals from the queue, they will be sent again: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.kestra.plugin.debezium;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Tracks the progress of the initial snapshot table by table, from the {@code source.snapshot} marker of the records.
+ *
+ * With several snapshot threads, tables are read concurrently and their records interleaved: each table is tracked on
+ * its own, from its first record to its {@code last_in_data_collection} one.
+ */
+public class SnapshotProgress {
+    private static final long LOG_EVERY = 100_000;
+
+    private final RunContext runContext;
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    public SnapshotProgress(RunContext runContext) {
+        this.runContext = runContext;
+    }
+
+    public void record(SourceRecord record) {
+        String marker = marker(record);
+        if (marker == null || marker.equals("false") || record.topic() == null) {
+            return;
+        }
+
+        String name = dataCollection(record.topic());
+        Table table = tables.computeIfAbsent(name, k -> {
+            runContext.logger().info("Snapshot of '{}' started", k);
+            return new Table(System.nanoTime());
+        });
+
+        long rows = table.rows.incrementAndGet();
+        if (rows % LOG_EVERY == 0) {
+            runContext.logger().info("Snapshot of '{}': {} rows", name, rows);
+        }
+
+        if ((marker.equals("last_in_data_collection") || marker.equals("last")) && table.done.compareAndSet(false, true)) {
+            table.endNanos = System.nanoTime();
+            runContext.logger().info(
+                "Snapshot of '{}' completed: {} rows in {}",
+                name,
+                rows,
+                Duration.ofNanos(table.endNanos - table.startNanos)
+            );
+        }
+
+        if (marker.equals("last")) {
+            runContext.logger().info("Snapshot completed: {} tables", tables.size());
+        }
+    }
+
+    /**
+     * Publishes the rows and duration of the snapshot of each table.
+     */
+    public void report() {
+        tables.forEach((name, table) -> {
+            long end = table.done.get() ? table.endNanos : System.nanoTime();
+
+            runContext.metric(Counter.of("snapshot.records", table.rows.get(), "table", name));
+            runContext.metric(Timer.of("snapshot.duration", Duration.ofNanos(end - table.startNanos), "table", name));
+        });
+    }
+
+    /**
+     * The {@code source.snapshot} marker: {@code first}, {@code first_in_data_collection}, {@code true},
+     * {@code last_in_data_collection}, {@code last} or {@code false}, null for records without source.
+     */
+    static String marker(SourceRecord record) {
+        if (!(record.value() instanceof Struct value) || value.schema().field("source") == null) {
+            return null;
+        }
+
+        Struct source = value.getStruct("source");
+        if (source == null || source.schema().field("snapshot") == null) {
+            return null;
+        }
+
+        Object snapshot = source.get("snapshot");
+        return snapshot != null ? snapshot.toString() : null;
+    }
+
+    // topics are <topic.prefix>.<data collection>
+    static String dataCollection(String topic) {
+        int dot = topic.indexOf('.');
+        return dot >= 0 ? topic.substring(dot + 1) : topic;
+    }
+
+    private static class Table {
+        private final long startNanos;
+
+        private final AtomicLong rows = new AtomicLong();
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private volatile long endNanos;
+
+        private Table(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.kestra.plugin.debezium;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Matches data collections against regular expressions, as the connectors do with their include and exclude lists.
+ */
+public final class TablePatterns {
+    private TablePatterns() {
+    }
+
+    /**
+     * Splits a Debezium include or exclude list into case-insensitive patterns.
+     *
+     * @return the patterns, null for a blank list
+     */
+    public static List<Pattern> patterns(String list) {
+        if (list == null || list.isBlank()) {
+            return null;
+        }
+
+        return Arrays.stream(list.split(","))
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .map(TablePatterns::pattern)
+            .toList();
+    }
+
+    /**
+     * Compiles a single entry of an include list, which may itself contain commas, e.g. in a {@code {1,3}} quantifier.
+     */
+    public static Pattern pattern(String regex) {
+        return Pattern.compile(regex.trim(), Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Matches a data collection against the patterns, either with its full identifier or without its first part,
+     * as some connectors prefix the topic with the database while their lists only name the schema and the table.
+     */
+    public static boolean matches(List<Pattern> patterns, String dataCollection) {
+        int firstDot = dataCollection.indexOf('.');
+        String withoutDatabase = firstDot > 0 && dataCollection.indexOf('.', firstDot + 1) > 0 ? dataCollection.substring(firstDot + 1) : null;
+
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(dataCollection).matches() || (withoutDatabase != null && pattern.matcher(withoutDatabase).matches())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package io.kestra.plugin.debezium.models;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+@Builder
+@Getter
+@Jacksonized
+public class Aggregation {
+    @Schema(
+        title = "The duration of the tumbling windows",
+        description = "The changes are assigned to windows by their source timestamp, the time of the change in the database."
+    )
+    @NotNull
+    private Duration window;
+
+    @Schema(
+        title = "The fields the aggregates are grouped by",
+        description = "Fields of the output rows, nested fields being separated by dots, e.g. `status` or `metadata.source.table`; " +
+            "`operation` groups by the operation of the change (`READ`, `CREATE`, `UPDATE`, `DELETE`)."
+    )
+    private List<String> groupBy;
+
+    @Schema(
+        title = "The aggregates to compute, by output field",
+        description = "One of `count`, `count(field)` for the non-null values, `sum(field)`, `min(field)`, `max(field)` and `avg(field)`, " +
+            "e.g. `{ rows: count, total: \"sum(amount)\" }`."
+    )
+    @NotEmpty
+    private Map<String, String> aggregates;
+}
@@ -0,0 +1,36 @@
+package io.kestra.plugin.debezium.models;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+@Builder
+@Getter
+@Jacksonized
+public class SnapshotFilter {
+    @Schema(
+        title = "The fully-qualified name of the table",
+        description = "The name of the table as in `includedTables`, e.g. `inventory.orders`; it is also used as is in the snapshot query. " +
+            "Regular expressions are not supported."
+    )
+    @NotNull
+    private String table;
+
+    @Schema(
+        title = "The columns read by the snapshot",
+        description = "All columns are read if not set. The primary key columns must be part of the list, " +
+            "and the changes streamed after the snapshot still hold all the columns: use `excludedColumns` to drop columns from both."
+    )
+    private List<String> columns;
+
+    @Schema(
+        title = "The condition of the rows read by the snapshot",
+        description = "A condition in the query language of the source, e.g. `created_at > '2024-01-01'` on SQL databases " +
+            "or `{ \"status\": \"active\" }` on MongoDB."
+    )
+    private String where;
+}
@@ -0,0 +1,71 @@
+package io.kestra.plugin.debezium.models;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+@Builder
+@Getter
+@Jacksonized
+public class StreamManifest {
+    @Schema(
+        title = "The URIs of the output files of the stream, its partitions when partitioned"
+    )
+    private List<URI> uris;
+
+    @Schema(
+        title = "The number of captured changes",
+        description = "Counted as they are captured, before compaction, sorting or aggregation; see `rows` for the output rows."
+    )
+    private Long records;
+
+    @Schema(
+        title = "The number of captured changes by operation",
+        description = "By Debezium operation: `READ` for the snapshot rows, `CREATE`, `UPDATE`, `DELETE` and `TRUNCATE`."
+    )
+    private Map<String, Long> operations;
+
+    @Schema(
+        title = "The number of rows in the output files",
+        description = "Fewer than `records` once compacted, sorted with `LAST_PER_KEY` or aggregated."
+    )
+    private Long rows;
+
+    @Schema(
+        title = "The size of the output files, in bytes"
+    )
+    private Long bytes;
+
+    @Schema(
+        title = "The earliest source timestamp of the changes"
+    )
+    private Instant minTimestamp;
+
+    @Schema(
+        title = "The latest source timestamp of the changes"
+    )
+    private Instant maxTimestamp;
+
+    @Schema(
+        title = "The source position of the first change",
+        description = "The connector offset of the change, e.g. the LSN on PostgreSQL, the binlog file and position on MySQL or the SCN on Oracle."
+    )
+    private Map<String, Object> firstPosition;
+
+    @Schema(
+        title = "The source position of the last change"
+    )
+    private Map<String, Object> lastPosition;
+
+    @Schema(
+        title = "The fingerprints of the row schemas of the changes, in the order they were seen",
+        description = "A new fingerprint means the table structure changed during the capture."
+    )
+    private List<String> schemas;
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.debezium;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.plugin.debezium.models.Message;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AggregatorTest {
+    @Test
+    void aggregatesTumblingWindows() {
+        Map<String, String> aggregates = new LinkedHashMap<>();
+        aggregates.put("rows", "count");
+        aggregates.put("total", "sum(amount)");
+        aggregates.put("largest", "max(amount)");
+        aggregates.put("average", "avg(amount)");
+
+        Aggregator aggregator = new Aggregator(Duration.ofMinutes(1), List.of("operation"), aggregates);
+        aggregator.add("shop.orders", 65_000, "CREATE", Map.of("amount", 10));
+        aggregator.add("shop.orders", 5_000, "CREATE", Map.of("amount", 20));
+        aggregator.add("shop.orders", 10_000, "CREATE", Map.of("amount", 5L));
+        aggregator.add("shop.orders", 30_000, "UPDATE", Map.of("amount", 1.5));
+
+        List<Map<String, Object>> rows = aggregator.rows().get("shop.orders");
+
+        assertThat(rows, hasSize(3));
+        assertThat(rows.getFirst().get("windowStart"), is(Instant.EPOCH));
+        assertThat(rows.getFirst().get("windowEnd"), is(Instant.ofEpochSecond(60)));
+        assertThat(rows.getFirst().get("operation"), is("CREATE"));
+        assertThat(rows.getFirst().get("rows"), is(2L));
+        assertThat(rows.getFirst().get("total"), is(new BigDecimal("25")));
+        assertThat(rows.getFirst().get("largest"), is(20));
+        assertThat(rows.getFirst().get("average"), is(new BigDecimal("12.5")));
+
+        assertThat(rows.get(1).get("operation"), is("UPDATE"));
+        assertThat(rows.get(2).get("windowStart"), is(Instant.ofEpochSecond(60)));
+    }
+
+    @Test
+    void groupsByNestedFields() {
+        Aggregator aggregator = new Aggregator(Duration.ofHours(1), List.of("metadata.table"), Map.of("rows", "count(id)"));
+        aggregator.add("data", 0, "CREATE", Map.of("id", 1, "metadata", Map.of("table", "orders")));
+        aggregator.add("data", 0, "CREATE", Map.of("metadata", Map.of("table", "orders")));
+        aggregator.add("data", 0, "CREATE", Map.of("id", 2, "metadata", Map.of("table", "customers")));
+
+        List<Map<String, Object>> rows = aggregator.rows().get("data");
+
+        assertThat(rows.stream().map(row -> row.get("metadata.table")).toList(), contains("orders", "customers"));
+        assertThat(rows.stream().map(row -> row.get("rows")).toList(), contains(1L, 1L));
+    }
+
+    @Test
+    void outputsWindowsPastTheWatermark() {
+        Aggregator aggregator = new Aggregator(Duration.ofMinutes(1), null, Map.of("rows", "count"));
+
+        assertThat(aggregator.add("shop.orders", 5_000, "CREATE", Map.of()), empty());
+        assertThat(aggregator.add("shop.orders", 50_000, "CREATE", Map.of()), empty());
+        assertThat(aggregator.add("shop.customers", 70_000, "CREATE", Map.of()), empty());
+
+        // the first change of the next window closes the previous one
+        List<Map<String, Object>> closed = aggregator.add("shop.orders", 65_000, "CREATE", Map.of());
+        assertThat(closed, hasSize(1));
+        assertThat(closed.getFirst().get("windowStart"), is(Instant.EPOCH));
+        assertThat(closed.getFirst().get("rows"), is(2L));
+
+        // a late change reopens its window, output with the next closed one
+        assertThat(aggregator.add("shop.orders", 10_000, "CREATE", Map.of()), empty());
+        assertThat(aggregator.getLate().get(), is(1L));
+
+        closed = aggregator.add("shop.orders", 185_000, "CREATE", Map.of());
+        assertThat(closed.stream().map(row -> row.get("windowStart")).toList(), contains(Instant.EPOCH, Instant.ofEpochSecond(60)));
+        assertThat(closed.stream().map(row -> row.get("rows")).toList(), contains(1L, 1L));
+
+        Map<String, List<Map<String, Object>>> open = aggregator.rows();
+        assertThat(open.get("shop.orders").stream().map(row -> row.get("windowStart")).toList(), contains(Instant.ofEpochSecond(180)));
+        assertThat(open.get("shop.customers"), hasSize(1));
+        assertThat(aggregator.rows().get("shop.orders"), empty());
+        assertThat(aggregator.outputRows(), is(Map.of("shop.orders", 4L, "shop.customers", 1L)));
+    }
+
+    @Test
+    void groupsBySourceMetadata() {
+        Message.Source orders = new Message.Source("3.3.1", "postgresql", "server", null, "false", "shop", "orders", null);
+        Message.Source customers = new Message.Source("3.3.1", "postgresql", "server", null, "false", "shop", "customers", null);
+
+        Aggregator aggregator = new Aggregator(Duration.ofHours(1), List.of("metadata.source.table"), Map.of("rows", "count"));
+        aggregator.add("data", 0, "CREATE", Map.of("id", 1, "metadata", Map.of("source", orders)));
+        aggregator.add("data", 0, "CREATE", Map.of("id", 2, "metadata", Map.of("source", orders)));
+        aggregator.add("data", 0, "CREATE", Map.of("id", 3, "metadata", Map.of("source", customers)));
+
+        List<Map<String, Object>> rows = aggregator.rows().get("data");
+
+        assertThat(rows.stream().map(row -> row.get("metadata.source.table")).toList(), contains("orders", "customers"));
+        assertThat(rows.stream().map(row -> row.get("rows")).toList(), contains(2L, 1L));
+    }
+
+    @Test
+    void invalidAggregate() {
+        assertThrows(IllegalArgumentException.class, () -> new Aggregator(Duration.ofMinutes(1), null, Map.of("total", "sum")));
+        assertThrows(IllegalArgumentException.class, () -> new Aggregator(Duration.ofMinutes(1), null, Map.of("total", "median(amount)")));
+        assertThrows(IllegalArgumentException.class, () -> new Aggregator(Duration.ZERO, null, Map.of("rows", "count")));
+    }
+}
@@ -0,0 +1,162 @@
+package io.kestra.plugin.debezium;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class AsyncStreamWriterTest {
+    @Test
+    void keepsTheOrderOfEachStream() throws Exception {
+        Output output = new Output();
+        AsyncStreamWriter writer = new AsyncStreamWriter(16, 4, output);
+
+        for (int i = 0; i < 1000; i++) {
+            for (int stream = 0; stream < 10; stream++) {
+                writer.submit("stream-" + stream, Map.of("i", i), 10);
+            }
+        }
+        writer.close();
+
+        assertThat(output.rows.keySet(), hasSize(10));
+        for (List<Object> rows : output.rows.values()) {
+            assertThat(rows, hasSize(1000));
+            for (int i = 0; i < rows.size(); i++) {
+                assertThat(rows.get(i), is(i));
+            }
+        }
+
+        assertThat(output.flushed.keySet(), is(output.rows.keySet()));
+        assertThat(output.released.get(), is(10L * 1000 * 10));
+        assertThat(writer.getMaxOccupancy().get(), lessThanOrEqualTo(4));
+    }
+
+    @Test
+    void blocksWhenTheBufferIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+
+        Output output = new Output() {
+            @Override
+            public void write(String stream, Map<String, Object> row) throws IOException {
+                writing.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                super.write(stream, row);
+            }
+        };
+
+        AsyncStreamWriter writer = new AsyncStreamWriter(2, 1, output);
+
+        // the writer holds the first row, the buffer the next two
+        writer.submit("orders", Map.of("i", 0), 1);
+        assertThat(writing.await(10, TimeUnit.SECONDS), is(true));
+        writer.submit("orders", Map.of("i", 1), 1);
+        writer.submit("orders", Map.of("i", 2), 1);
+
+        Thread submitter = Thread.ofPlatform().start(() -> {
+            try {
+                writer.submit("orders", Map.of("i", 3), 1);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        submitter.join(Duration.ofMillis(200));
+        assertThat(submitter.isAlive(), is(true));
+        assertThat(submitter.getState(), is(Thread.State.WAITING));
+
+        unblock.countDown();
+        submitter.join(Duration.ofSeconds(10));
+        assertThat(submitter.isAlive(), is(false));
+
+        writer.close();
+
+        assertThat(output.rows.get("orders"), contains(0, 1, 2, 3));
+        assertThat(writer.getStallNanos().get(), greaterThan(0L));
+        assertThat(writer.getMaxOccupancy().get(), is(2));
+    }
+
+    @Test
+    void surfacesWriterFailures() {
+        Output output = new Output() {
+            @Override
+            public void write(String stream, Map<String, Object> row) throws IOException {
+                if (row.get("i").equals(1)) {
+                    throw new IOException("disk full");
+                }
+                super.write(stream, row);
+            }
+        };
+
+        AsyncStreamWriter writer = new AsyncStreamWriter(2, 1, output);
+
+        // the failed writer keeps draining, so the engine thread never blocks on it
+        IOException exception = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                writer.submit("orders", Map.of("i", i), 1);
+            }
+            writer.close();
+        }));
+
+        assertThat(exception.getCause().getMessage(), is("disk full"));
+        assertThat(output.rows.get("orders"), contains(0));
+        assertThrows(IOException.class, () -> writer.submit("orders", Map.of("i", 100), 1));
+        assertThrows(IOException.class, writer::close);
+    }
+
+    @Test
+    void closeWritesTheBufferedRows() throws Exception {
+        Output output = new Output();
+        AsyncStreamWriter writer = new AsyncStreamWriter(1024, 2, output);
+
+        for (int i = 0; i < 500; i++) {
+            writer.submit("orders", Map.of("i", i), 1);
+        }
+
+        // the poison pill is queued after the rows, so close only returns once they are all written
+        assertTimeoutPreemptively(Duration.ofSeconds(10), writer::close);
+
+        assertThat(output.rows.get("orders"), hasSize(500));
+        assertThat(output.flushed.get("orders").get(), greaterThan(0L));
+        assertThat(output.released.get(), is(500L));
+    }
+
+    private static class Output implements AsyncStreamWriter.StreamOutput {
+        private final Map<String, List<Object>> rows = new ConcurrentHashMap<>();
+
+        private final Map<String, AtomicLong> flushed = new ConcurrentHashMap<>();
+
+        private final AtomicLong released = new AtomicLong();
+
+        @Override
+        public void write(String stream, Map<String, Object> row) throws IOException {
+            rows.computeIfAbsent(stream, s -> new ArrayList<>()).add(row.get("i"));
+        }
+
+        @Override
+        public void flush(String stream) {
+            flushed.computeIfAbsent(stream, s -> new AtomicLong()).incrementAndGet();
+        }
+
+        @Override
+        public void released(long bytes) {
+            released.addAndGet(bytes);
+        }
+    }
+}
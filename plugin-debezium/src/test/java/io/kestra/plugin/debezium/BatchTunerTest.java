@@ -0,0 +1,81 @@
+package io.kestra.plugin.debezium;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BatchTunerTest {
+    private static final long BUDGET = 64L * 1024 * 1024;
+
+    @Test
+    void keepsValuesWithoutEnoughObservations() {
+        BatchTuner tuner = new BatchTuner(new Properties(), Set.of(), BUDGET);
+        tuner.observe(2048, 2048 * 100, 1_000_000);
+
+        Map<String, String> tuned = tuner.tuned();
+
+        assertThat(tuned.get(BatchTuner.MAX_BATCH_SIZE), is("2048"));
+        assertThat(tuned.get(BatchTuner.MAX_QUEUE_SIZE), is("8192"));
+        assertThat(tuned.get(BatchTuner.POLL_INTERVAL_MS), is("500"));
+    }
+
+    @Test
+    void growsBatchesOnBacklog() {
+        BatchTuner tuner = new BatchTuner(new Properties(), Set.of(), BUDGET);
+        for (int i = 0; i < 10; i++) {
+            tuner.observe(2048, 2048 * 100, 10_000_000);
+        }
+
+        Map<String, String> tuned = tuner.tuned();
+
+        assertThat(tuned.get(BatchTuner.MAX_BATCH_SIZE), is("4096"));
+        assertThat(tuned.get(BatchTuner.MAX_QUEUE_SIZE), is("16384"));
+        assertThat(tuned.get(BatchTuner.POLL_INTERVAL_MS), is("250"));
+        assertThat(tuned.get(BatchTuner.MAX_QUEUE_SIZE_IN_BYTES), is("0"));
+    }
+
+    @Test
+    void boundsWideRecordsInBytes() {
+        BatchTuner tuner = new BatchTuner(new Properties(), Set.of(), BUDGET);
+        long recordBytes = 1024 * 1024;
+        for (int i = 0; i < 10; i++) {
+            tuner.observe(2048, 2048 * recordBytes, 10_000_000);
+        }
+
+        Map<String, String> tuned = tuner.tuned();
+
+        assertThat(Integer.parseInt(tuned.get(BatchTuner.MAX_BATCH_SIZE)), is(BatchTuner.MIN_BATCH_SIZE));
+        assertThat(tuned.get(BatchTuner.MAX_QUEUE_SIZE_IN_BYTES), is(String.valueOf(BUDGET)));
+    }
+
+    @Test
+    void slowsPollingOnSparseBatches() {
+        BatchTuner tuner = new BatchTuner(new Properties(), Set.of(), BUDGET);
+        for (int i = 0; i < 10; i++) {
+            tuner.observe(3, 300, 1_000_000);
+        }
+
+        assertThat(tuner.tuned().get(BatchTuner.POLL_INTERVAL_MS), is("1000"));
+    }
+
+    @Test
+    void neverTunesUserProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(BatchTuner.MAX_QUEUE_SIZE, "3000");
+
+        BatchTuner tuner = new BatchTuner(properties, Set.of(BatchTuner.MAX_QUEUE_SIZE), BUDGET);
+        for (int i = 0; i < 10; i++) {
+            tuner.observe(2048, 2048 * 100, 10_000_000);
+        }
+
+        Map<String, String> tuned = tuner.tuned();
+
+        assertThat(tuned, not(hasKey(BatchTuner.MAX_QUEUE_SIZE)));
+        assertThat(tuned.get(BatchTuner.MAX_BATCH_SIZE), is("2999"));
+    }
+}
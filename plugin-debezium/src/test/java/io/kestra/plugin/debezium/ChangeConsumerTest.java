@@ -0,0 +1,408 @@
+package io.kestra.plugin.debezium;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.plugin.debezium.models.Aggregation;
+import io.kestra.plugin.debezium.models.StreamManifest;
+
+import io.debezium.engine.ChangeEvent;
+import io.debezium.engine.DebeziumEngine;
+import jakarta.inject.Inject;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Feeds change events to a consumer the way the engine does, without a source database.
+ */
+@KestraTest
+class ChangeConsumerTest {
+    static final Schema KEY = SchemaBuilder.struct()
+        .field("id", Schema.INT64_SCHEMA)
+        .build();
+
+    static final Schema ROW = SchemaBuilder.struct()
+        .field("id", Schema.INT64_SCHEMA)
+        .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    static final Schema SOURCE = SchemaBuilder.struct()
+        .field("version", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("connector", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("ts_ms", Schema.INT64_SCHEMA)
+        .field("db", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("table", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    static final Schema ENVELOPE = io.debezium.data.Envelope.defineSchema()
+        .withName("server.shop.orders.Envelope")
+        .withRecord(ROW)
+        .withSource(SOURCE)
+        .build()
+        .schema();
+
+    static final DebeziumEngine.RecordCommitter<ChangeEvent<SourceRecord, SourceRecord>> COMMITTER = new DebeziumEngine.RecordCommitter<>() {
+        @Override
+        public void markProcessed(ChangeEvent<SourceRecord, SourceRecord> record) {
+        }
+
+        @Override
+        public void markBatchFinished() {
+        }
+
+        @Override
+        public void markProcessed(ChangeEvent<SourceRecord, SourceRecord> record, DebeziumEngine.Offsets sourceOffsets) {
+        }
+
+        @Override
+        public DebeziumEngine.Offsets buildOffsets() {
+            return null;
+        }
+    };
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    // public with a no-args constructor, like the plugin tasks, for the classpath plugin scan
+    @SuperBuilder
+    @NoArgsConstructor
+    public static class TestTask extends AbstractDebeziumTask {
+        @Override
+        protected boolean needDatabaseHistory() {
+            return false;
+        }
+
+        @Override
+        protected Properties properties(RunContext runContext, Path offsetFile, Path historyFile) {
+            return new Properties();
+        }
+    }
+
+    @Test
+    void sortSpillsFromRecordSizes() throws Exception {
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .outputSort(Property.ofValue(AbstractDebeziumTask.OutputSort.KEY))
+            .sortBufferSize(Property.ofValue(1L))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        ChangeConsumer consumer = consumer(task, runContext);
+
+        consumer.handleBatch(List.of(event(record("c", 3, "c")), event(record("c", 1, "a")), event(record("c", 2, "b")), event(record("c", 4, "d"))), COMMITTER);
+        consumer.close();
+
+        // every change fills the one byte buffer, so each one is spilled in its own run
+        assertThat(metric(runContext, "sort.spills"), is(4.0));
+        assertThat(rows(consumer, "shop.orders").stream().map(row -> row.get("name")).toList(), contains("a", "b", "c", "d"));
+    }
+
+    @Test
+    void partitionsByKey() throws Exception {
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .partitions(Property.ofValue(4))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        ChangeConsumer consumer = consumer(task, runContext);
+
+        for (String operation : List.of("c", "u", "u")) {
+            List<ChangeEvent<SourceRecord, SourceRecord>> batch = new ArrayList<>();
+            for (long id = 1; id <= 40; id++) {
+                batch.add(event(record(operation, id, operation + id)));
+            }
+            consumer.handleBatch(batch, COMMITTER);
+        }
+        consumer.close();
+
+        String[] files = consumer.getPartitionFiles().get("shop.orders");
+        assertThat(files, arrayWithSize(4));
+
+        Map<Long, Set<String>> partitionsOfKey = new HashMap<>();
+        for (String file : files) {
+            if (consumer.getRecords().containsKey(file)) {
+                for (Map<String, Object> row : rows(consumer, file)) {
+                    partitionsOfKey.computeIfAbsent(((Number) row.get("id")).longValue(), id -> new HashSet<>()).add(file);
+                }
+            }
+        }
+
+        // all the changes of a key are in the same partition, the keys being spread across them
+        assertThat(partitionsOfKey.keySet(), hasSize(40));
+        assertThat(partitionsOfKey.values().stream().allMatch(partitions -> partitions.size() == 1), is(true));
+        assertThat(partitionsOfKey.values().stream().flatMap(Set::stream).distinct().count(), greaterThan(1L));
+        assertThat(consumer.getRecords().keySet().stream().allMatch(List.of(files)::contains), is(true));
+    }
+
+    @Test
+    void streamsOfMongoDbCollections() throws Exception {
+        Schema source = SchemaBuilder.struct()
+            .field("connector", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("ts_ms", Schema.INT64_SCHEMA)
+            .field("db", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("rs", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("collection", Schema.OPTIONAL_STRING_SCHEMA)
+            .build();
+
+        Schema envelope = io.debezium.data.Envelope.defineSchema()
+            .withName("server.inventory.customers.Envelope")
+            .withRecord(ROW)
+            .withSource(source)
+            .build()
+            .schema();
+
+        Struct value = new Struct(envelope)
+            .put("after", new Struct(ROW).put("id", 1L).put("name", "a"))
+            .put("source", new Struct(source).put("connector", "mongodb").put("ts_ms", 1000L).put("db", "inventory").put("rs", "rs0").put("collection", "customers"))
+            .put("op", "c");
+        SourceRecord record = new SourceRecord(Map.of(), Map.of("ord", 1), "server.inventory.customers", null, KEY, new Struct(KEY).put("id", 1L), envelope, value);
+
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        ChangeConsumer consumer = consumer(task, runContext);
+
+        // the stream is read from the source block, without converting the record
+        assertThat(consumer.stream(record), is("inventory.customers"));
+
+        consumer.handleBatch(List.of(event(record)), COMMITTER);
+        consumer.close();
+
+        assertThat(consumer.getRecords().keySet(), contains("inventory.customers"));
+        assertThat(rows(consumer, "inventory.customers").getFirst().get("name"), is("a"));
+    }
+
+    @Test
+    void dropsDeletes() throws Exception {
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .deleted(Property.ofValue(AbstractDebeziumTask.Deleted.DROP))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        ChangeConsumer consumer = consumer(task, runContext);
+
+        SourceRecord delete = record("d", 1, "a");
+        SourceRecord tombstone = new SourceRecord(Map.of(), Map.of("lsn", 1L), "server.shop.orders", null, KEY, delete.key(), null, null);
+
+        consumer.handleBatch(List.of(event(record("c", 1, "a")), event(record("c", 2, "b")), event(delete), event(tombstone)), COMMITTER);
+        consumer.close();
+
+        // neither the delete, that would otherwise be output as its before image, nor its tombstone
+        assertThat(rows(consumer, "shop.orders").stream().map(row -> row.get("name")).toList(), contains("a", "b"));
+        assertThat(metric(runContext, "filtered.records"), is(2.0));
+    }
+
+    @Test
+    void outputsClosedAggregationWindows() throws Exception {
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .aggregation(Property.ofValue(Aggregation.builder()
+                .window(Duration.ofSeconds(1))
+                .aggregates(Map.of("rows", "count"))
+                .build()
+            ))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        ChangeConsumer consumer = consumer(task, runContext);
+
+        consumer.handleBatch(List.of(event(record("c", 1, "a")), event(record("c", 2, "b")), event(record("c", 3, "c"))), COMMITTER);
+
+        // the windows the capture went past are written without waiting for the end of the capture
+        assertThat(rows(consumer, "shop.orders"), hasSize(2));
+
+        consumer.close();
+
+        assertThat(rows(consumer, "shop.orders"), hasSize(3));
+        assertThat(metric(runContext, "aggregation.rows"), is(3.0));
+    }
+
+    @Test
+    void aggregationRejectsRewrittenOutputs() {
+        Aggregation aggregation = Aggregation.builder()
+            .window(Duration.ofSeconds(1))
+            .aggregates(Map.of("rows", "count"))
+            .build();
+
+        for (TestTask task : List.of(
+            TestTask.builder().id(IdUtils.create()).type(TestTask.class.getName()).aggregation(Property.ofValue(aggregation)).compaction(Property.ofValue(true)).build(),
+            TestTask.builder().id(IdUtils.create()).type(TestTask.class.getName()).aggregation(Property.ofValue(aggregation)).outputSort(Property.ofValue(AbstractDebeziumTask.OutputSort.KEY)).build(),
+            TestTask.builder().id(IdUtils.create()).type(TestTask.class.getName()).aggregation(Property.ofValue(aggregation)).partitions(Property.ofValue(4)).build()
+        )) {
+            RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> consumer(task, runContext));
+            assertThat(exception.getMessage(), containsString("'aggregation'"));
+        }
+    }
+
+    @Test
+    void countsOutputRowsOnceCompacted() throws Exception {
+        for (TestTask task : List.of(
+            TestTask.builder().id(IdUtils.create()).type(TestTask.class.getName()).manifest(Property.ofValue(true)).compaction(Property.ofValue(true)).build(),
+            TestTask.builder().id(IdUtils.create()).type(TestTask.class.getName()).manifest(Property.ofValue(true)).outputSort(Property.ofValue(AbstractDebeziumTask.OutputSort.LAST_PER_KEY)).build()
+        )) {
+            RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+            ChangeConsumer consumer = consumer(task, runContext);
+
+            consumer.handleBatch(List.of(event(record("c", 1, "a")), event(record("u", 1, "a2")), event(record("c", 2, "b")), event(record("u", 1, "a3"))), COMMITTER);
+            consumer.close();
+
+            // the manifest counts the captured changes, the output rows being only the last change of each key
+            StreamManifest stream = consumer.getManifest()
+                .build(Map.of(), Map.of(), Map.of("shop.orders", consumer.getOutputRows().get("shop.orders").get()))
+                .get("shop.orders");
+            assertThat(stream.getRecords(), is(4L));
+            assertThat(stream.getOperations(), is(Map.of("CREATE", 2L, "UPDATE", 2L)));
+            assertThat(stream.getRows(), is(2L));
+            assertThat(rows(consumer, "shop.orders").stream().map(row -> row.get("name")).toList(), containsInAnyOrder("a3", "b"));
+        }
+    }
+
+    @Test
+    void sparseUpdatesOnlyKeepChangedColumns() throws Exception {
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .sparseUpdates(Property.ofValue(true))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        ChangeConsumer consumer = consumer(task, runContext);
+
+        consumer.handleBatch(List.of(
+            event(update(1, "a", "a2")),
+            event(update(2, "b", "b")),
+            event(update(3, null, "c")),
+            event(record("c", 4, "d"))
+        ), COMMITTER);
+        consumer.close();
+
+        List<Map<String, Object>> rows = rows(consumer, "shop.orders");
+
+        // the key columns are always kept, the unchanged ones removed
+        assertThat(rows.getFirst().get("id"), is(1L));
+        assertThat(rows.getFirst().get("name"), is("a2"));
+        assertThat(rows.getFirst().get("op"), is("u"));
+
+        assertThat(rows.get(1).get("id"), is(2L));
+        assertThat(rows.get(1).containsKey("name"), is(false));
+
+        // without before image, the update is kept whole, as the other operations
+        assertThat(rows.get(2).get("name"), is("c"));
+        assertThat(rows.get(3).get("name"), is("d"));
+
+        assertThat(metric(runContext, "sparse.updates"), is(2.0));
+        assertThat(metric(runContext, "sparse.fallbacks"), is(1.0));
+    }
+
+    static ChangeConsumer consumer(AbstractDebeziumTask task, RunContext runContext) throws Exception {
+        Path offsetFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.OFFSETS_DATA_FILE);
+        Path historyFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.DBHISTORY_DATA_FILE);
+
+        return new ChangeConsumer(task, runContext, new AtomicInteger(), new AtomicBoolean(), ZonedDateTime.now(), offsetFile, historyFile, new Properties());
+    }
+
+    static SourceRecord record(String operation, long id, String name) {
+        Struct row = new Struct(ROW).put("id", id).put("name", name);
+
+        Struct value = new Struct(ENVELOPE)
+            .put(operation.equals("d") ? "before" : "after", row)
+            .put("source", new Struct(SOURCE).put("ts_ms", 1000L * id).put("db", "shop").put("table", "orders"))
+            .put("op", operation);
+
+        return new SourceRecord(Map.of(), Map.of("lsn", id), "server.shop.orders", null, KEY, new Struct(KEY).put("id", id), ENVELOPE, value);
+    }
+
+    // an update of the name of a row, without before image when its previous name is null
+    static SourceRecord update(long id, String previous, String name) {
+        Struct value = new Struct(ENVELOPE)
+            .put("after", new Struct(ROW).put("id", id).put("name", name))
+            .put("source", new Struct(SOURCE).put("ts_ms", 1000L * id).put("db", "shop").put("table", "orders"))
+            .put("op", "u");
+
+        if (previous != null) {
+            value.put("before", new Struct(ROW).put("id", id).put("name", previous));
+        }
+
+        return new SourceRecord(Map.of(), Map.of("lsn", id), "server.shop.orders", null, KEY, new Struct(KEY).put("id", id), ENVELOPE, value);
+    }
+
+    static ChangeEvent<SourceRecord, SourceRecord> event(SourceRecord record) {
+        return new Event(record, record);
+    }
+
+    // the rows written to the output file of the stream
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> rows(ChangeConsumer consumer, String stream) throws Exception {
+        var output = consumer.getRecords().get(stream);
+        output.getRight().flush();
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(output.getLeft()))) {
+            FileSerde.reader(reader, row -> rows.add((Map<String, Object>) row));
+        }
+
+        return rows;
+    }
+
+    static Object metric(RunContext runContext, String name) {
+        return runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals(name))
+            .map(AbstractMetricEntry::getValue)
+            .findFirst()
+            .orElse(null);
+    }
+
+    private record Event(SourceRecord key, SourceRecord value) implements ChangeEvent<SourceRecord, SourceRecord> {
+        @Override
+        public String destination() {
+            return value.topic();
+        }
+
+        public Integer partition() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.kestra.plugin.debezium;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class CompactorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void keepsLastChangeOfEachKey() throws Exception {
+        Compactor.Stream stream = new Compactor().stream("data");
+        long a = Compactor.keyHash("server.shop.orders", "Struct{id=1}");
+        long b = Compactor.keyHash("server.shop.orders", "Struct{id=2}");
+
+        StringBuilder content = new StringBuilder();
+        this.row(stream, content, a, "a1\n");
+        this.row(stream, content, b, "b1\n");
+        this.row(stream, content, null, "n1\n");
+        this.row(stream, content, a, "a2\n");
+        this.row(stream, content, null, "n2\n");
+        stream.delete(b);
+
+        File file = tempDir.resolve("data.ion").toFile();
+        Files.writeString(file.toPath(), content);
+
+        assertThat(stream.compact(file), is(2));
+        assertThat(Files.readString(file.toPath()), is("n1\na2\nn2\n"));
+    }
+
+    @Test
+    void hashesBinaryKeysByContent() throws Exception {
+        Schema schema = SchemaBuilder.struct().field("id", Schema.BYTES_SCHEMA).build();
+
+        long a = Compactor.keyHash("server.shop.files", new Struct(schema).put("id", new byte[]{1, 2}));
+        long copy = Compactor.keyHash("server.shop.files", new Struct(schema).put("id", new byte[]{1, 2}));
+        long buffer = Compactor.keyHash("server.shop.files", new Struct(schema).put("id", ByteBuffer.wrap(new byte[]{1, 2}).asReadOnlyBuffer()));
+        long b = Compactor.keyHash("server.shop.files", new Struct(schema).put("id", new byte[]{1, 3}));
+
+        assertThat(copy, is(a));
+        assertThat(buffer, is(a));
+        assertThat(b, not(a));
+
+        Compactor.Stream stream = new Compactor().stream("data");
+        StringBuilder content = new StringBuilder();
+        this.row(stream, content, a, "a1\n");
+        this.row(stream, content, b, "b1\n");
+        this.row(stream, content, copy, "a2\n");
+
+        File file = tempDir.resolve("files.ion").toFile();
+        Files.writeString(file.toPath(), content);
+
+        assertThat(stream.compact(file), is(1));
+        assertThat(Files.readString(file.toPath()), is("b1\na2\n"));
+    }
+
+    @Test
+    void supersedesRowsNotWrittenYet() throws Exception {
+        // the rows are registered in order but written later, as with an asynchronous writer
+        Compactor.Stream stream = new Compactor().stream("data");
+        for (int i = 0; i < 2000; i++) {
+            stream.add((long) (i % 10));
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            stream.written(content.toString().getBytes(StandardCharsets.UTF_8).length);
+            content.append(i).append('\n');
+        }
+
+        File file = tempDir.resolve("data.ion").toFile();
+        Files.writeString(file.toPath(), content);
+
+        assertThat(stream.compact(file), is(1990));
+        assertThat(Files.readString(file.toPath()), is("1990\n1991\n1992\n1993\n1994\n1995\n1996\n1997\n1998\n1999\n"));
+    }
+
+    @Test
+    void keyIndexGrows() {
+        KeyIndex index = new KeyIndex(16);
+
+        for (long i = 0; i < 10_000; i++) {
+            assertThat(index.put(i, i * 2), is(-1L));
+        }
+
+        assertThat(index.getSize(), is(10_000));
+        assertThat(index.get(0), is(0L));
+        assertThat(index.get(4242), is(8484L));
+        assertThat(index.put(4242, 1), is(8484L));
+        assertThat(index.get(20_000), is(-1L));
+    }
+
+    private void row(Compactor.Stream stream, StringBuilder content, Long key, String row) {
+        stream.add(key);
+        stream.written(content.toString().getBytes(StandardCharsets.UTF_8).length);
+        content.append(row);
+    }
+}
@@ -0,0 +1,161 @@
+package io.kestra.plugin.debezium;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * The engine properties generated from the task properties, without starting the engine.
+ */
+@KestraTest
+class EnginePropertiesTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    // public with a no-args constructor, like the plugin tasks, for the classpath plugin scan
+    @SuperBuilder
+    @NoArgsConstructor
+    public static class TestTask extends AbstractDebeziumTask {
+        @Override
+        protected boolean needDatabaseHistory() {
+            return false;
+        }
+    }
+
+    @Test
+    void asyncEngine() throws Exception {
+        Properties props = engineProperties(TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .tasksMax(Property.ofValue(4))
+            .recordProcessingThreads(Property.ofValue(8))
+            .recordProcessingOrder(Property.ofValue(AbstractDebeziumTask.RecordProcessingOrder.UNORDERED))
+            .build()
+        );
+
+        assertThat(props.getProperty("tasks.max"), is("4"));
+        assertThat(props.getProperty("record.processing.threads"), is("8"));
+        assertThat(props.getProperty("record.processing.order"), is("UNORDERED"));
+    }
+
+    @Test
+    void asyncEngineDefaults() throws Exception {
+        Properties props = engineProperties(TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .build()
+        );
+
+        // left to the engine defaults
+        assertThat(props.getProperty("tasks.max"), nullValue());
+        assertThat(props.getProperty("record.processing.threads"), nullValue());
+        assertThat(props.getProperty("record.processing.order"), nullValue());
+    }
+
+    @Test
+    void userPropertiesWin() throws Exception {
+        Properties props = engineProperties(TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .tasksMax(Property.ofValue(4))
+            .properties(Property.ofValue(Map.of("tasks.max", "2")))
+            .build()
+        );
+
+        assertThat(props.getProperty("tasks.max"), is("2"));
+    }
+
+    @Test
+    void parallelSnapshot() throws Exception {
+        Properties props = engineProperties(TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .snapshotMaxThreads(Property.ofValue(4))
+            .snapshotTableOrder(Property.ofValue(AbstractDebeziumTask.SnapshotTableOrder.LARGEST_FIRST))
+            .build()
+        );
+
+        assertThat(props.getProperty("snapshot.max.threads"), is("4"));
+        assertThat(props.getProperty("snapshot.tables.order.by.row.count"), is("descending"));
+
+        props = engineProperties(TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .snapshotTableOrder(Property.ofValue(AbstractDebeziumTask.SnapshotTableOrder.SMALLEST_FIRST))
+            .build()
+        );
+
+        assertThat(props.getProperty("snapshot.max.threads"), nullValue());
+        assertThat(props.getProperty("snapshot.tables.order.by.row.count"), is("ascending"));
+    }
+
+    @Test
+    void incrementalSnapshot() throws Exception {
+        TestTask task = TestTask.builder()
+            .id(IdUtils.create())
+            .type(TestTask.class.getName())
+            .includedTables(List.of("shop.orders", "shop.customers"))
+            .snapshotStrategy(Property.ofValue(AbstractDebeziumTask.SnapshotStrategy.INCREMENTAL))
+            .incrementalSnapshotChunkSize(Property.ofValue(512))
+            .signalDataCollection(Property.ofValue("shop.debezium_signal"))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        Path offsetFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.OFFSETS_DATA_FILE);
+        Properties props = engineProperties(task, runContext);
+
+        assertThat(props.getProperty("incremental.snapshot.chunk.size"), is("512"));
+        assertThat(props.getProperty("signal.data.collection"), is("shop.debezium_signal"));
+        assertThat(props.getProperty("signal.enabled.channels"), is("source,file"));
+
+        // the first run streams without a blocking snapshot, and asks for an incremental one of the included tables
+        assertThat(props.getProperty("snapshot.mode"), is("no_data"));
+
+        Path signalFile = Path.of(props.getProperty("signal.file"));
+        List<String> signals = Files.readAllLines(signalFile);
+        assertThat(signals, hasSize(1));
+
+        Map<String, Object> signal = JacksonMapper.toMap(signals.getFirst());
+        assertThat(signal.get("type"), is("execute-snapshot"));
+        assertThat(((Map<?, ?>) signal.get("data")).get("type"), is("INCREMENTAL"));
+        assertThat(((Map<?, ?>) signal.get("data")).get("data-collections"), is(List.of("shop.orders", "shop.customers")));
+
+        // the next runs resume the chunks from the offsets
+        Files.writeString(offsetFile, "offsets");
+        Files.delete(signalFile);
+        props = engineProperties(task, runContext);
+
+        assertThat(props.getProperty("snapshot.mode"), nullValue());
+        assertThat(Files.exists(signalFile), is(false));
+    }
+
+    Properties engineProperties(AbstractDebeziumTask task) throws Exception {
+        return engineProperties(task, TestsUtils.mockRunContext(runContextFactory, task, Map.of()));
+    }
+
+    Properties engineProperties(AbstractDebeziumTask task, RunContext runContext) throws Exception {
+        Path offsetFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.OFFSETS_DATA_FILE);
+        Path historyFile = runContext.workingDir().path().resolve(AbstractDebeziumTask.DBHISTORY_DATA_FILE);
+
+        return task.engineProperties(runContext, offsetFile, historyFile);
+    }
+}
@@ -0,0 +1,109 @@
+package io.kestra.plugin.debezium;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ExternalSorterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sortsByKeyThenSourceOrder() throws Exception {
+        // a run is spilled every two entries
+        ExternalSorter sorter = new ExternalSorter(tempDir, 2, false);
+        sorter.add(key(3), row("c1"), 1);
+        sorter.add(key(1), row("a1"), 1);
+        sorter.add(null, row("n1"), 1);
+        sorter.add(key(3), row("c2"), 1);
+        sorter.add(key(2), row("b1"), 1);
+        sorter.add(key(1), row("a2"), 1);
+
+        assertThat(sorter.getRuns(), is(3));
+        assertThat(this.names(sorter), contains("n1", "a1", "a2", "b1", "c1", "c2"));
+    }
+
+    @Test
+    void keepsLastChangePerKey() throws Exception {
+        ExternalSorter sorter = new ExternalSorter(tempDir, 3, true);
+        sorter.add(key(1), row("a1"), 1);
+        sorter.add(key(2), row("b1"), 1);
+        sorter.add(key(1), row("a2"), 1);
+        sorter.add(key(2), null, 1);
+        sorter.add(key(1), row("a3"), 1);
+        sorter.add(null, row("n1"), 1);
+        sorter.add(null, row("n2"), 1);
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        sorter.sort(entries::add);
+
+        assertThat(entries.stream().map(ExternalSorter::keyOf).toList(), contains(nullValue(), nullValue(), is(key(1)), is(key(2))));
+        assertThat(ExternalSorter.rowOf(entries.get(2)), is(row("a3")));
+        assertThat(ExternalSorter.rowOf(entries.get(3)), nullValue());
+        assertThat(sorter.getDuplicates(), is(3L));
+    }
+
+    @Test
+    void mergeKeepsNewestIterator() throws Exception {
+        List<Map<String, Object>> oldest = List.of(ExternalSorter.entry(key(1), row("a1")), ExternalSorter.entry(key(2), row("b1")));
+        List<Map<String, Object>> newest = List.of(ExternalSorter.entry(key(2), null), ExternalSorter.entry(key(10), row("d1")));
+
+        List<Map<String, Object>> merged = new ArrayList<>();
+        long dropped = ExternalSorter.merge(List.of(oldest.iterator(), newest.iterator()), true, merged::add);
+
+        assertThat(merged.stream().map(ExternalSorter::keyOf).toList(), contains(key(1), key(2), key(10)));
+        assertThat(ExternalSorter.rowOf(merged.get(1)), nullValue());
+        assertThat(dropped, is(1L));
+    }
+
+    @Test
+    void keysOrderByColumnValues() {
+        Schema schema = SchemaBuilder.struct().field("id", Schema.INT64_SCHEMA).build();
+
+        List<Object> key = ExternalSorter.key("server.shop.orders", new Struct(schema).put("id", 9L));
+
+        assertThat(key, contains("server.shop.orders", 9L));
+        assertThat(ExternalSorter.KEYS.compare(key, List.of("server.shop.orders", 10)), lessThan(0));
+        assertThat(ExternalSorter.KEYS.compare(key, List.of("server.shop.customers", 1)), greaterThan(0));
+    }
+
+    @Test
+    void keysReadBinaryColumnsContent() {
+        Schema schema = SchemaBuilder.struct().field("id", Schema.BYTES_SCHEMA).build();
+
+        ByteBuffer slice = ByteBuffer.wrap(new byte[]{9, 1, 2, 9}, 1, 2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(2).put(new byte[]{1, 2}).flip();
+
+        List<Object> key = ExternalSorter.key("server.shop.files", new Struct(schema).put("id", new byte[]{1, 2}));
+
+        assertThat(key, contains("server.shop.files", "0102"));
+        assertThat(ExternalSorter.key("server.shop.files", new Struct(schema).put("id", slice.asReadOnlyBuffer())), is(key));
+        assertThat(ExternalSorter.key("server.shop.files", new Struct(schema).put("id", direct)), is(key));
+        assertThat(direct.remaining(), is(2));
+    }
+
+    private List<String> names(ExternalSorter sorter) throws Exception {
+        List<String> names = new ArrayList<>();
+        sorter.sort(entry -> names.add((String) ExternalSorter.rowOf(entry).get("name")));
+        return names;
+    }
+
+    private static List<Object> key(int id) {
+        return List.of("server.shop.orders", id);
+    }
+
+    private static Map<String, Object> row(String name) {
+        return Map.of("name", name);
+    }
+}
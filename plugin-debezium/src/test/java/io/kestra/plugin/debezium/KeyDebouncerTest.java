@@ -0,0 +1,117 @@
+package io.kestra.plugin.debezium;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.debezium.data.Envelope;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class KeyDebouncerTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    private final List<AbstractDebeziumRealtimeTrigger.StreamOutput> emitted = new ArrayList<>();
+
+    private KeyDebouncer debouncer(int maxKeys) {
+        return new KeyDebouncer(Duration.ofNanos(100), maxKeys, emitted::add, clock::get);
+    }
+
+    private static AbstractDebeziumRealtimeTrigger.StreamOutput output(Object value) {
+        return AbstractDebeziumRealtimeTrigger.StreamOutput.builder()
+            .stream("db.table")
+            .data(Map.of("value", value))
+            .build();
+    }
+
+    @Test
+    void latestStateWinsWithinWindow() {
+        try (var debouncer = debouncer(10)) {
+            debouncer.offer("a", Envelope.Operation.CREATE, output(1));
+            debouncer.offer("a", Envelope.Operation.UPDATE, output(2));
+            debouncer.offer("a", Envelope.Operation.UPDATE, output(3));
+
+            clock.set(99);
+            debouncer.flushExpired();
+            assertThat(emitted, is(empty()));
+
+            clock.set(100);
+            debouncer.flushExpired();
+            assertThat(emitted, hasSize(1));
+            assertThat(emitted.getFirst().getData().get("value"), is(3));
+            assertThat(debouncer.getSuperseded().get(), is(2L));
+        }
+    }
+
+    @Test
+    void deleteIsNotReplacedByUpdate() {
+        try (var debouncer = debouncer(10)) {
+            debouncer.offer("a", Envelope.Operation.UPDATE, output(1));
+            debouncer.offer("a", Envelope.Operation.DELETE, output("deleted"));
+            debouncer.offer("a", Envelope.Operation.UPDATE, output(2));
+
+            debouncer.flush();
+            assertThat(emitted, hasSize(1));
+            assertThat(emitted.getFirst().getData().get("value"), is("deleted"));
+        }
+    }
+
+    @Test
+    void deleteIsReplacedByReinsert() {
+        try (var debouncer = debouncer(10)) {
+            debouncer.offer("a", Envelope.Operation.DELETE, output("deleted"));
+            debouncer.offer("a", Envelope.Operation.CREATE, output("reinserted"));
+
+            debouncer.flush();
+            assertThat(emitted, hasSize(1));
+            assertThat(emitted.getFirst().getData().get("value"), is("reinserted"));
+        }
+    }
+
+    @Test
+    void keylessRecordsAreEmittedRightAway() {
+        try (var debouncer = debouncer(10)) {
+            debouncer.offer(null, Envelope.Operation.CREATE, output(1));
+
+            assertThat(emitted, hasSize(1));
+            assertThat(debouncer.size(), is(0));
+        }
+    }
+
+    @Test
+    void pendingKeysAreEmittedUnderPressure() {
+        try (var debouncer = debouncer(10)) {
+            debouncer.flushUnderPressure();
+            assertThat(debouncer.getPressureFlushes().get(), is(0L));
+
+            debouncer.offer("a", Envelope.Operation.CREATE, output("a"));
+            debouncer.offer("b", Envelope.Operation.CREATE, output("b"));
+
+            debouncer.flushUnderPressure();
+            assertThat(emitted.stream().map(output -> output.getData().get("value")).toList(), contains("a", "b"));
+            assertThat(debouncer.size(), is(0));
+            assertThat(debouncer.getPressureFlushes().get(), is(1L));
+        }
+    }
+
+    @Test
+    void oldestKeyIsEmittedWhenFull() {
+        try (var debouncer = debouncer(2)) {
+            debouncer.offer("a", Envelope.Operation.CREATE, output("a"));
+            debouncer.offer("b", Envelope.Operation.CREATE, output("b"));
+            debouncer.offer("c", Envelope.Operation.CREATE, output("c"));
+
+            assertThat(emitted, hasSize(1));
+            assertThat(emitted.getFirst().getData().get("value"), is("a"));
+            assertThat(debouncer.size(), is(2));
+        }
+
+        // remaining keys are flushed on close
+        assertThat(emitted, hasSize(3));
+    }
+}
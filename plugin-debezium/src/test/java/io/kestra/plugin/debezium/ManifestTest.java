@@ -0,0 +1,78 @@
+package io.kestra.plugin.debezium;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.plugin.debezium.models.StreamManifest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ManifestTest {
+    private static final Schema ROW = SchemaBuilder.struct()
+        .field("id", Schema.INT64_SCHEMA)
+        .optional()
+        .build();
+
+    private static final Schema SOURCE = SchemaBuilder.struct()
+        .field("ts_ms", Schema.INT64_SCHEMA)
+        .build();
+
+    private static final Schema ENVELOPE = io.debezium.data.Envelope.defineSchema()
+        .withName("server.shop.orders.Envelope")
+        .withRecord(ROW)
+        .withSource(SOURCE)
+        .build()
+        .schema();
+
+    @Test
+    void gathersStreamStatistics() {
+        Manifest manifest = new Manifest();
+        manifest.record("shop.orders", record("c", 2000L, 10L));
+        manifest.record("shop.orders", record("u", 1000L, 11L));
+        manifest.record("shop.orders", record("u", 3000L, 12L));
+
+        URI uri = URI.create("kestra:///orders.ion");
+        StreamManifest stream = manifest.build(Map.of("shop.orders", List.of(uri)), Map.of("shop.orders", 42L), Map.of("shop.orders", 3L)).get("shop.orders");
+
+        assertThat(stream.getRecords(), is(3L));
+        assertThat(stream.getRows(), is(3L));
+        assertThat(stream.getOperations(), is(Map.of("CREATE", 1L, "UPDATE", 2L)));
+        assertThat(stream.getBytes(), is(42L));
+        assertThat(stream.getUris(), contains(uri));
+        assertThat(stream.getMinTimestamp(), is(Instant.ofEpochMilli(1000L)));
+        assertThat(stream.getMaxTimestamp(), is(Instant.ofEpochMilli(3000L)));
+        assertThat(stream.getFirstPosition(), is(Map.of("lsn", 10L)));
+        assertThat(stream.getLastPosition(), is(Map.of("lsn", 12L)));
+        assertThat(stream.getSchemas(), hasSize(1));
+    }
+
+    @Test
+    void fingerprintsFollowColumns() {
+        Schema widened = SchemaBuilder.struct()
+            .field("id", Schema.INT64_SCHEMA)
+            .field("status", Schema.OPTIONAL_STRING_SCHEMA)
+            .optional()
+            .build();
+
+        assertThat(Manifest.describe(ROW), not(Manifest.describe(widened)));
+        assertThat(Manifest.describe(ROW), is(Manifest.describe(SchemaBuilder.struct().field("id", Schema.INT64_SCHEMA).optional().build())));
+    }
+
+    private static SourceRecord record(String operation, long timestamp, long lsn) {
+        Struct value = new Struct(ENVELOPE)
+            .put("after", new Struct(ROW).put("id", 1L))
+            .put("source", new Struct(SOURCE).put("ts_ms", timestamp))
+            .put("op", operation);
+
+        return new SourceRecord(Map.of(), Map.of("lsn", lsn), "server.shop.orders", ENVELOPE, value);
+    }
+}
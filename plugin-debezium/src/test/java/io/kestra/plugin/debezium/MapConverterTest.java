@@ -8,10 +8,14 @@ import java.util.Map;
 import java.util.stream.Stream;
 
 import org.apache.kafka.connect.data.*;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import io.kestra.plugin.debezium.models.Envelope;
+
 import io.debezium.time.*;
 import io.debezium.time.Date;
 import io.debezium.time.Time;
@@ -20,6 +24,7 @@ import io.debezium.time.Year;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 class MapConverterTest {
     private final static Schema STRUCT_SCHEMA = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).field("b", Schema.INT32_SCHEMA).build();
@@ -84,4 +89,29 @@ class MapConverterTest {
 
         assertThat(convert, is(expected != null ? expected : value));
     }
+
+    @Test
+    void convertOnlyReadEnvelopeFields() {
+        Schema envelopeSchema = io.debezium.data.Envelope.defineSchema()
+            .withName("server.inventory.orders.Envelope")
+            .withRecord(STRUCT_SCHEMA)
+            .withSource(SchemaBuilder.struct().field("db", Schema.STRING_SCHEMA).build())
+            .build()
+            .schema();
+
+        Struct value = new Struct(envelopeSchema)
+            .put("before", new Struct(STRUCT_SCHEMA).put("a", "before").put("b", 1))
+            .put("after", new Struct(STRUCT_SCHEMA).put("a", "after").put("b", 2))
+            .put("source", new Struct(envelopeSchema.field("source").schema()).put("db", "inventory"))
+            .put("op", "u");
+        SourceRecord record = new SourceRecord(Map.of(), Map.of(), "server.inventory.orders", envelopeSchema, value);
+
+        Envelope full = (Envelope) MapConverter.convert(record).getValue();
+        Envelope afterOnly = (Envelope) MapConverter.convert(record, field -> field.equals("op") || field.equals("after")).getValue();
+
+        assertThat(afterOnly.getAfter(), is(full.getAfter()));
+        assertThat(afterOnly.getOperation(), is(io.debezium.data.Envelope.Operation.UPDATE));
+        assertThat(afterOnly.getBefore(), nullValue());
+        assertThat(afterOnly.getSource(), nullValue());
+    }
 }
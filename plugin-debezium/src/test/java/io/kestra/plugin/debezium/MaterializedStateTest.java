@@ -0,0 +1,154 @@
+package io.kestra.plugin.debezium;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class MaterializedStateTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void appliesChangesAcrossRuns() throws Exception {
+        RunContext runContext = runContext();
+        String kvKey = IdUtils.create();
+
+        MaterializedState first = new MaterializedState(runContext, 1024);
+        first.add("shop.orders", key(1), row(1, "a"), 64);
+        first.add("shop.orders", key(2), row(2, "b"), 64);
+        first.add("shop.orders", key(3), row(3, "c"), 64);
+        first.add("shop.orders", key(2), row(2, "b2"), 64);
+        first.add("shop.customers", key(1), row(1, "x"), 64);
+        assertThat(first.commit(kvKey, 8, false), anEmptyMap());
+
+        // the next run only knows the segments listed in the KV store
+        MaterializedState second = new MaterializedState(runContext, 1024);
+        second.add("shop.orders", key(3), null, 64);
+        second.add("shop.orders", key(4), row(4, "d"), 64);
+        Map<String, URI> snapshots = second.commit(kvKey, 8, true);
+
+        assertThat(segments(runContext, kvKey).get("shop.orders"), hasSize(2));
+        assertThat(segments(runContext, kvKey).get("shop.customers"), hasSize(1));
+
+        assertThat(snapshots.keySet(), containsInAnyOrder("shop.orders", "shop.customers"));
+        assertThat(names(rows(runContext, snapshots.get("shop.orders"))), contains("a", "b2", "d"));
+        assertThat(names(rows(runContext, snapshots.get("shop.customers"))), contains("x"));
+    }
+
+    @Test
+    void mergesSegmentsPastTheMaximum() throws Exception {
+        RunContext runContext = runContext();
+        String kvKey = IdUtils.create();
+
+        MaterializedState run = new MaterializedState(runContext, 1024);
+        run.add("shop.orders", key(1), row(1, "a"), 64);
+        run.add("shop.orders", key(2), row(2, "b"), 64);
+        run.commit(kvKey, 2, false);
+
+        run = new MaterializedState(runContext, 1024);
+        run.add("shop.orders", key(2), null, 64);
+        run.commit(kvKey, 2, false);
+
+        List<String> unmerged = segments(runContext, kvKey).get("shop.orders");
+        assertThat(unmerged, hasSize(2));
+
+        run = new MaterializedState(runContext, 1024);
+        run.add("shop.orders", key(1), row(1, "a2"), 64);
+        run.add("shop.orders", key(3), row(3, "c"), 64);
+        Map<String, URI> snapshots = run.commit(kvKey, 2, true);
+
+        // the three segments are merged into one without the tombstones, the merged ones being deleted
+        List<String> merged = segments(runContext, kvKey).get("shop.orders");
+        assertThat(merged, hasSize(1));
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        try (InputStream inputStream = runContext.storage().getFile(URI.create(merged.getFirst()))) {
+            ExternalSorter.reader(inputStream).forEachRemaining(entries::add);
+        }
+        assertThat(entries.stream().map(ExternalSorter::rowOf).allMatch(row -> row != null), is(true));
+        assertThat(names(entries.stream().map(ExternalSorter::rowOf).toList()), contains("a2", "c"));
+
+        for (String segment : unmerged) {
+            assertThrows(Exception.class, () -> runContext.storage().getFile(URI.create(segment)).close());
+        }
+
+        assertThat(names(rows(runContext, snapshots.get("shop.orders"))), contains("a2", "c"));
+        assertThat(ChangeConsumerTest.metric(runContext, "materialized.segments"), is(1.0));
+    }
+
+    @Test
+    void spillsTheChangesOfARun() throws Exception {
+        RunContext runContext = runContext();
+        String kvKey = IdUtils.create();
+
+        // every change fills the buffer, so each one is spilled before the run is committed
+        MaterializedState run = new MaterializedState(runContext, 1);
+        for (int id = 5; id >= 1; id--) {
+            run.add("shop.orders", key(id), row(id, "v" + id), 64);
+        }
+        run.add("shop.orders", key(5), null, 64);
+
+        Map<String, URI> snapshots = run.commit(kvKey, 8, true);
+
+        assertThat(names(rows(runContext, snapshots.get("shop.orders"))), contains("v1", "v2", "v3", "v4"));
+    }
+
+    private RunContext runContext() {
+        ChangeConsumerTest.TestTask task = ChangeConsumerTest.TestTask.builder()
+            .id(IdUtils.create())
+            .type(ChangeConsumerTest.TestTask.class.getName())
+            .build();
+
+        return TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+    }
+
+    private static List<Object> key(int id) {
+        return List.of("server.shop.orders", id);
+    }
+
+    private static Map<String, Object> row(int id, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, List<String>> segments(RunContext runContext, String kvKey) throws Exception {
+        return (Map<String, List<String>>) runContext.namespaceKv(runContext.flowInfo().namespace()).getValue(kvKey).orElseThrow().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(RunContext runContext, URI uri) throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri)))) {
+            FileSerde.reader(reader, row -> rows.add((Map<String, Object>) row));
+        }
+        return rows;
+    }
+
+    private static List<Object> names(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> row.get("name")).toList();
+    }
+}
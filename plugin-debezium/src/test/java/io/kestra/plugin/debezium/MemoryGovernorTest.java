@@ -0,0 +1,104 @@
+package io.kestra.plugin.debezium;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class MemoryGovernorTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryGovernorTest.class);
+
+    @Test
+    void resumesUnderTheResumeThreshold() throws Exception {
+        AtomicReference<Double> heap = new AtomicReference<>(0.8);
+        MemoryGovernor governor = new MemoryGovernor(heap::get);
+        MemoryGovernor.Registration registration = governor.register(LOGGER, 0.9, 0.7, null);
+
+        // between both thresholds, a running consumer is not paused
+        assertTimeoutPreemptively(Duration.ofSeconds(1), registration::awaitCapacity);
+        assertThat(registration.getPauses().get(), is(0L));
+        assertThat(registration.underPressure(), is(false));
+
+        heap.set(0.95);
+        assertThat(registration.underPressure(), is(true));
+        Thread consumer = Thread.ofPlatform().start(() -> {
+            try {
+                registration.awaitCapacity();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        awaitPause(registration);
+        consumer.join(Duration.ofMillis(300));
+        assertThat(consumer.isAlive(), is(true));
+
+        // nor is a paused one resumed
+        heap.set(0.8);
+        consumer.join(Duration.ofMillis(300));
+        assertThat(consumer.isAlive(), is(true));
+
+        heap.set(0.6);
+        consumer.join(Duration.ofSeconds(10));
+        assertThat(consumer.isAlive(), is(false));
+
+        assertThat(registration.getPauses().get(), is(1L));
+        assertThat(registration.getPausedNanos().get(), greaterThanOrEqualTo(Duration.ofMillis(600).toNanos()));
+    }
+
+    @Test
+    void pausesOnTheBytesBufferedByTheConsumer() throws Exception {
+        MemoryGovernor governor = new MemoryGovernor(() -> 0);
+        MemoryGovernor.Registration registration = governor.register(LOGGER, 0.8, 0.6, 1000L);
+        MemoryGovernor.Registration other = governor.register(LOGGER, 0.8, 0.6, 1000L);
+
+        registration.buffered(1500);
+        other.buffered(200);
+        assertThat(governor.bufferedBytes(), is(1700L));
+
+        // only the consumer over its own limit is paused
+        assertTimeoutPreemptively(Duration.ofSeconds(1), other::awaitCapacity);
+
+        Thread consumer = Thread.ofPlatform().start(() -> {
+            try {
+                registration.awaitCapacity();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // under the limit, but not yet under its resume share of 750 bytes
+        awaitPause(registration);
+        registration.released(600);
+        consumer.join(Duration.ofMillis(300));
+        assertThat(consumer.isAlive(), is(true));
+
+        registration.released(200);
+        consumer.join(Duration.ofSeconds(10));
+        assertThat(consumer.isAlive(), is(false));
+        assertThat(registration.getPauses().get(), is(1L));
+        assertThat(governor.bufferedBytes(), is(900L));
+
+        // closing a registration forgets the bytes it still buffers
+        registration.close();
+        assertThat(governor.bufferedBytes(), is(200L));
+
+        other.released(200);
+        other.close();
+        assertThat(governor.bufferedBytes(), is(0L));
+    }
+
+    private static void awaitPause(MemoryGovernor.Registration registration) {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (registration.getPauses().get() == 0) {
+                Thread.sleep(10);
+            }
+        });
+    }
+}
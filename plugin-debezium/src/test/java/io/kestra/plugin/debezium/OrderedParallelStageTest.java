@@ -0,0 +1,51 @@
+package io.kestra.plugin.debezium;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderedParallelStageTest {
+    @Test
+    void resultsKeepInputOrder() throws Exception {
+        List<Integer> inputs = IntStream.range(0, 1_000).boxed().toList();
+
+        try (var stage = new OrderedParallelStage(8)) {
+            List<Integer> results = stage.map(inputs, i -> i * 2);
+
+            assertThat(results, is(inputs.stream().map(i -> i * 2).toList()));
+        }
+    }
+
+    @Test
+    void nullResultsArePreserved() throws Exception {
+        List<Integer> inputs = IntStream.range(0, 100).boxed().toList();
+
+        try (var stage = new OrderedParallelStage(4)) {
+            List<Integer> results = stage.map(inputs, i -> i % 2 == 0 ? null : i);
+
+            assertThat(results.size(), is(100));
+            assertThat(results.get(0) == null, is(true));
+            assertThat(results.get(1), is(1));
+        }
+    }
+
+    @Test
+    void failureIsRethrownUnwrapped() {
+        List<Integer> inputs = IntStream.range(0, 100).boxed().toList();
+
+        try (var stage = new OrderedParallelStage(4)) {
+            assertThrows(IOException.class, () -> stage.map(inputs, i -> {
+                if (i == 42) {
+                    throw new IOException("boom");
+                }
+                return i;
+            }));
+        }
+    }
+}
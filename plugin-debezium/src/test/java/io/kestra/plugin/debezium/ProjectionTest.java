@@ -0,0 +1,59 @@
+package io.kestra.plugin.debezium;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ProjectionTest {
+    @Test
+    void readsOnlySelectedColumns() {
+        Schema schema = SchemaBuilder.struct()
+            .field("id", Schema.INT32_SCHEMA)
+            .field("name", Schema.STRING_SCHEMA)
+            .field("payload", Schema.STRING_SCHEMA)
+            .build();
+
+        Projection projection = new Projection(List.of("id", "name", "metadata.source.lsn"));
+
+        assertThat(projection.fields(schema).stream().map(Field::name).toList(), contains("id", "name"));
+    }
+
+    @Test
+    void prunesNestedFields() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1);
+        row.put("payload", "large");
+        row.put("deleted", false);
+        row.put("metadata", Map.of("source", Map.of("lsn", 42, "db", "inventory"), "operation", "UPDATE"));
+
+        Map<String, Object> projected = new Projection(List.of("id", "deleted", "metadata.source.lsn")).apply(row, null);
+
+        assertThat(projected, is(Map.of("id", 1, "deleted", false, "metadata", Map.of("source", Map.of("lsn", 42)))));
+    }
+
+    @Test
+    void matchesTables() {
+        Projection.Tables tables = Projection.Tables.of(Map.of("inventory.orders", List.of("id")));
+
+        assertThat(tables.find("inventory.orders"), notNullValue());
+        assertThat(tables.find("erp.inventory.orders"), notNullValue());
+        assertThat(tables.find("inventory.customers"), nullValue());
+    }
+
+    @Test
+    void matchesTablesAsRegularExpressions() {
+        Projection.Tables tables = Projection.Tables.of(Map.of("inventory\\.order_[0-9]{4,6}", List.of("id")));
+
+        assertThat(tables.find("inventory.order_2024"), notNullValue());
+        assertThat(tables.find("INVENTORY.ORDER_202401"), notNullValue());
+        assertThat(tables.find("inventory.order_archive"), nullValue());
+    }
+}
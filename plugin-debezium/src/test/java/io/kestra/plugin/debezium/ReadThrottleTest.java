@@ -0,0 +1,75 @@
+package io.kestra.plugin.debezium;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ReadThrottleTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void limitsRows() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(10 * SECOND);
+        ReadThrottle throttle = new ReadThrottle(1_000, null, false, 2048, clock::get, clock::addAndGet);
+
+        throttle.acquire(1_000, 0);
+        assertThat(throttle.getThrottledNanos(), is(0L));
+
+        throttle.acquire(1_000, 0);
+        assertThat(throttle.getThrottledNanos(), is(SECOND));
+
+        throttle.acquire(1_000, 0);
+        assertThat(throttle.getThrottledNanos(), is(2 * SECOND));
+    }
+
+    @Test
+    void limitsBytes() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(10 * SECOND);
+        ReadThrottle throttle = new ReadThrottle(null, 1_000L, false, 2048, clock::get, clock::addAndGet);
+
+        throttle.acquire(1, 3_000);
+        throttle.acquire(1, 1_000);
+
+        assertThat(throttle.getThrottledNanos(), is(3 * SECOND));
+    }
+
+    @Test
+    void idleTimeRefillsUpToBurst() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(10 * SECOND);
+        ReadThrottle throttle = new ReadThrottle(1_000, null, false, 2048, clock::get, clock::addAndGet);
+
+        clock.addAndGet(60 * SECOND);
+        throttle.acquire(1_000, 0);
+        throttle.acquire(1_000, 0);
+        throttle.acquire(1_000, 0);
+
+        assertThat(throttle.getThrottledNanos(), is(SECOND));
+    }
+
+    @Test
+    void backsOffWhenSourceSlowsDown() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(10 * SECOND);
+        ReadThrottle throttle = new ReadThrottle(1_000_000, null, true, 1_000, clock::get, clock::addAndGet);
+
+        // fast source: 10 ms per full batch
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(1_000, 0);
+            throttle.completed();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(throttle.getFactor(), is(1.0));
+
+        // loaded source: 100 ms per full batch
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(1_000, 0);
+            throttle.completed();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertThat(throttle.getFactor(), lessThan(0.5));
+        assertThat(throttle.effectiveRowsPerSecond(), lessThan(500_000.0));
+    }
+}
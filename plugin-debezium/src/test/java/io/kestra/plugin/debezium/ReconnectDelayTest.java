@@ -0,0 +1,54 @@
+package io.kestra.plugin.debezium;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ReconnectDelayTest {
+    private static final Duration INITIAL = Duration.ofSeconds(1);
+    private static final Duration MAX = Duration.ofSeconds(30);
+
+    @RepeatedTest(20)
+    void delayDoublesWithJitter() {
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long expected = INITIAL.toMillis() << (attempt - 1);
+            var delay = AbstractDebeziumRealtimeTrigger.reconnectDelay(attempt, INITIAL, MAX);
+
+            assertThat(delay.toMillis(), is(both(greaterThanOrEqualTo(expected / 2)).and(lessThanOrEqualTo(expected))));
+        }
+    }
+
+    @RepeatedTest(20)
+    void delayIsCappedAtMax() {
+        var delay = AbstractDebeziumRealtimeTrigger.reconnectDelay(10, INITIAL, MAX);
+
+        assertThat(delay.toMillis(), is(both(greaterThanOrEqualTo(MAX.toMillis() / 2)).and(lessThanOrEqualTo(MAX.toMillis()))));
+    }
+
+    @Test
+    void hugeAttemptNeverOverflows() {
+        var delay = AbstractDebeziumRealtimeTrigger.reconnectDelay(Integer.MAX_VALUE, INITIAL, MAX);
+
+        assertThat(delay.toMillis(), is(lessThanOrEqualTo(MAX.toMillis())));
+        assertThat(delay.isNegative(), is(false));
+    }
+
+    @Test
+    void downtimeEndsOnceRecovered() throws InterruptedException {
+        var downtime = new AbstractDebeziumRealtimeTrigger.Downtime();
+        assertThat(downtime.recovered().isPresent(), is(false));
+
+        downtime.failed();
+        Thread.sleep(50);
+
+        // a failure while reconnecting does not restart the downtime
+        downtime.failed();
+
+        assertThat(downtime.recovered().orElseThrow(), greaterThanOrEqualTo(Duration.ofMillis(50)));
+        assertThat(downtime.recovered().isPresent(), is(false));
+    }
+}
@@ -0,0 +1,145 @@
+package io.kestra.plugin.debezium;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RowPredicateTest {
+    private static final Schema ROW = SchemaBuilder.struct()
+        .field("status", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("amount", Schema.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+
+    private static final Schema ENVELOPE = io.debezium.data.Envelope.defineSchema()
+        .withName("server.shop.orders.Envelope")
+        .withRecord(ROW)
+        .withSource(SchemaBuilder.struct().field("table", Schema.STRING_SCHEMA).build())
+        .build()
+        .schema();
+
+    @Test
+    void comparesColumns() {
+        Struct update = update("NEW", 10L, "PAID", 1500L);
+
+        assertThat(new RowPredicate("status = 'PAID'").test(ENVELOPE, update), is(true));
+        assertThat(new RowPredicate("after.amount > 1000 AND before.amount <= 10").test(ENVELOPE, update), is(true));
+        assertThat(new RowPredicate("NOT (status = 'PAID' OR amount < 0)").test(ENVELOPE, update), is(false));
+        assertThat(new RowPredicate("op = 'u' AND source.table = 'orders'").test(ENVELOPE, update), is(true));
+        assertThat(new RowPredicate("missing IS NULL").test(ENVELOPE, update), is(true));
+    }
+
+    @Test
+    void readsBeforeImageOfDeletes() {
+        Struct delete = new Struct(ENVELOPE)
+            .put("before", new Struct(ROW).put("status", "PAID").put("amount", 1L))
+            .put("source", new Struct(ENVELOPE.field("source").schema()).put("table", "orders"))
+            .put("op", "d");
+
+        assertThat(new RowPredicate("status = 'PAID'").test(ENVELOPE, delete), is(true));
+    }
+
+    @Test
+    void changedColumns() {
+        RowPredicate changed = new RowPredicate("changed(status)");
+
+        assertThat(changed.test(ENVELOPE, update("NEW", 10L, "PAID", 10L)), is(true));
+        assertThat(changed.test(ENVELOPE, update("PAID", 10L, "PAID", 20L)), is(false));
+    }
+
+    @Test
+    void invalidExpression() {
+        assertThrows(IllegalArgumentException.class, () -> new RowPredicate("status = "));
+        assertThrows(IllegalArgumentException.class, () -> new RowPredicate("status 'PAID'"));
+    }
+
+    @Test
+    void readsTheRemainingBytes() {
+        Schema row = SchemaBuilder.struct().field("code", Schema.OPTIONAL_BYTES_SCHEMA).optional().build();
+        Schema envelope = envelope(row);
+
+        // a read-only view of part of a larger buffer, as the converters may hand over
+        ByteBuffer code = ByteBuffer.wrap("--PAID--".getBytes(StandardCharsets.UTF_8)).position(2).limit(6).slice().asReadOnlyBuffer();
+        Struct insert = insert(envelope, new Struct(row).put("code", code));
+
+        assertThat(new RowPredicate("code = 'PAID'").test(envelope, insert), is(true));
+        assertThat(code.remaining(), is(4));
+    }
+
+    @Test
+    void comparesTemporalColumns() {
+        Schema row = SchemaBuilder.struct()
+            .field("day", io.debezium.time.Date.builder().optional().build())
+            .field("created_at", io.debezium.time.MicroTimestamp.builder().optional().build())
+            .field("updated_at", io.debezium.time.Timestamp.builder().optional().build())
+            .optional()
+            .build();
+        Schema envelope = envelope(row);
+
+        Instant createdAt = Instant.parse("2024-01-31T12:00:00Z");
+        Struct insert = insert(envelope, new Struct(row)
+            .put("day", (int) LocalDate.parse("2024-01-31").toEpochDay())
+            .put("created_at", ChronoUnit.MICROS.between(Instant.EPOCH, createdAt))
+            .put("updated_at", createdAt.plusSeconds(60).toEpochMilli())
+        );
+
+        assertThat(new RowPredicate("day = '2024-01-31'").test(envelope, insert), is(true));
+        assertThat(new RowPredicate("day < '2024-02-01'").test(envelope, insert), is(true));
+        assertThat(new RowPredicate("created_at >= '2024-01-31T12:00:00Z'").test(envelope, insert), is(true));
+        assertThat(new RowPredicate("created_at > '2024-01-31T13:00:00+02:00'").test(envelope, insert), is(true));
+        assertThat(new RowPredicate("created_at < '2024-01-31'").test(envelope, insert), is(false));
+        assertThat(new RowPredicate("updated_at > created_at").test(envelope, insert), is(true));
+    }
+
+    @Test
+    void rejectsInvalidTemporalComparisons() {
+        Schema row = SchemaBuilder.struct()
+            .field("day", io.debezium.time.Date.builder().optional().build())
+            .field("created_at", io.debezium.time.MicroTimestamp.builder().optional().build())
+            .optional()
+            .build();
+        Schema envelope = envelope(row);
+        Struct insert = insert(envelope, new Struct(row).put("day", 0).put("created_at", 0L));
+
+        for (String expression : new String[]{"day > 19000", "day = 'yesterday'", "created_at > day"}) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new RowPredicate(expression).test(envelope, insert));
+            assertThat(exception.getMessage(), containsString(expression));
+        }
+    }
+
+    private static Schema envelope(Schema row) {
+        return io.debezium.data.Envelope.defineSchema()
+            .withName("server.shop.orders.Envelope")
+            .withRecord(row)
+            .withSource(SchemaBuilder.struct().field("table", Schema.STRING_SCHEMA).build())
+            .build()
+            .schema();
+    }
+
+    private static Struct insert(Schema envelope, Struct after) {
+        return new Struct(envelope)
+            .put("after", after)
+            .put("source", new Struct(envelope.field("source").schema()).put("table", "orders"))
+            .put("op", "c");
+    }
+
+    private static Struct update(String beforeStatus, Long beforeAmount, String afterStatus, Long afterAmount) {
+        return new Struct(ENVELOPE)
+            .put("before", new Struct(ROW).put("status", beforeStatus).put("amount", beforeAmount))
+            .put("after", new Struct(ROW).put("status", afterStatus).put("amount", afterAmount))
+            .put("source", new Struct(ENVELOPE.field("source").schema()).put("table", "orders"))
+            .put("op", "u");
+    }
+}
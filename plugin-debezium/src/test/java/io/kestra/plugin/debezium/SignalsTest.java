@@ -0,0 +1,136 @@
+package io.kestra.plugin.debezium;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SignalsTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    // public with a no-args constructor, like the plugin tasks, for the classpath plugin scan
+    @SuperBuilder
+    @NoArgsConstructor
+    public static class TestSignal extends AbstractDebeziumSignal {
+    }
+
+    @Test
+    void captureDrainsTheQueuedSignals() throws Exception {
+        String stateName = "debezium-state-" + IdUtils.create();
+        TestSignal task = TestSignal.builder()
+            .id(IdUtils.create())
+            .type(TestSignal.class.getName())
+            .stateName(Property.ofValue(stateName))
+            .dataCollections(Property.ofValue(List.of("shop.orders")))
+            .filter(Property.ofValue("id > 10"))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        String first = task.run(runContext).getSignalId();
+        String second = task.run(runContext).getSignalId();
+
+        // the capture of the same flow and state reads the queue the signal task wrote to
+        EnginePropertiesTest.TestTask capture = EnginePropertiesTest.TestTask.builder()
+            .id(IdUtils.create())
+            .type(EnginePropertiesTest.TestTask.class.getName())
+            .stateName(Property.ofValue(stateName))
+            .build();
+        String key = capture.signalsKvKey(runContext);
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+        assertThat(kvStore.getValue(key).isPresent(), is(true));
+
+        // building the engine properties has no side effect on the queue
+        capture.engineProperties(
+            runContext,
+            runContext.workingDir().path().resolve(AbstractDebeziumTask.OFFSETS_DATA_FILE),
+            runContext.workingDir().path().resolve(AbstractDebeziumTask.DBHISTORY_DATA_FILE)
+        );
+        assertThat(kvStore.getValue(key).isPresent(), is(true));
+
+        Path signalFile = runContext.workingDir().path().resolve(Signals.SIGNAL_FILE);
+        Signals.Delivery delivery = new Signals.Delivery(runContext, key, signalFile);
+        assertThat(delivery.drain(), is(2));
+
+        List<Map<String, Object>> signals = new ArrayList<>();
+        for (String line : Files.readAllLines(signalFile)) {
+            signals.add(JacksonMapper.toMap(line));
+        }
+        assertThat(signals.stream().map(signal -> signal.get("id")).toList(), contains(first, second));
+        assertThat(signals.getFirst().get("type"), is("execute-snapshot"));
+
+        Map<?, ?> data = (Map<?, ?>) signals.getFirst().get("data");
+        assertThat(data.get("data-collections"), is(List.of("shop.orders")));
+        assertThat(data.get("additional-conditions"), is(List.of(Map.of("data-collection", "shop.orders", "filter", "id > 10"))));
+
+        // the signals are only moved once, but stay queued while the engine has not read them
+        assertThat(delivery.drain(), is(0));
+        assertThat(Files.readAllLines(signalFile), hasSize(2));
+        delivery.acknowledge();
+        assertThat(kvStore.getValue(key).isPresent(), is(true));
+
+        // read by the engine, that truncates the signal file: the saved state removes them from the queue
+        String third = task.run(runContext).getSignalId();
+        Files.writeString(signalFile, "");
+        delivery.acknowledge();
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> queued = (List<Map<String, Object>>) kvStore.getValue(key).orElseThrow().value();
+        assertThat(queued.stream().map(signal -> signal.get("id")).toList(), contains(third));
+
+        assertThat(delivery.drain(), is(1));
+        Files.writeString(signalFile, "");
+        delivery.acknowledge();
+        assertThat(kvStore.getValue(key).isPresent(), is(false));
+    }
+
+    @Test
+    void failedRunKeepsTheQueuedSignals() throws Exception {
+        String stateName = "debezium-state-" + IdUtils.create();
+        TestSignal task = TestSignal.builder()
+            .id(IdUtils.create())
+            .type(TestSignal.class.getName())
+            .stateName(Property.ofValue(stateName))
+            .dataCollections(Property.ofValue(List.of("shop.orders")))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+        String signalId = task.run(runContext).getSignalId();
+
+        EnginePropertiesTest.TestTask capture = EnginePropertiesTest.TestTask.builder()
+            .id(IdUtils.create())
+            .type(EnginePropertiesTest.TestTask.class.getName())
+            .stateName(Property.ofValue(stateName))
+            .build();
+        String key = capture.signalsKvKey(runContext);
+
+        // a run moving the signal to its signal file, then failing before saving its state
+        Path signalFile = Files.createTempDirectory("signals").resolve(Signals.SIGNAL_FILE);
+        assertThat(new Signals.Delivery(runContext, key, signalFile).drain(), is(1));
+
+        // the next run receives it again
+        Path nextSignalFile = Files.createTempDirectory("signals").resolve(Signals.SIGNAL_FILE);
+        assertThat(new Signals.Delivery(runContext, key, nextSignalFile).drain(), is(1));
+        assertThat(JacksonMapper.toMap(Files.readAllLines(nextSignalFile).getFirst()).get("id"), is(signalId));
+    }
+}
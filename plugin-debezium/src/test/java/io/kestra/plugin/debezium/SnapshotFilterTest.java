@@ -0,0 +1,30 @@
+package io.kestra.plugin.debezium;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.plugin.debezium.models.SnapshotFilter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SnapshotFilterTest {
+    @Test
+    void selectStatement() {
+        assertThat(
+            AbstractDebeziumTask.selectStatement(SnapshotFilter.builder().table("inventory.orders").build()),
+            is("SELECT * FROM inventory.orders")
+        );
+
+        assertThat(
+            AbstractDebeziumTask.selectStatement(SnapshotFilter.builder()
+                .table("inventory.orders")
+                .columns(List.of("id", "status"))
+                .where("created_at > '2024-01-01'")
+                .build()
+            ),
+            is("SELECT id, status FROM inventory.orders WHERE created_at > '2024-01-01'")
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package io.kestra.plugin.debezium;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SnapshotNewTablesTest {
+    @Test
+    void onlyAddedTables() {
+        var added = AbstractDebeziumTask.addedTables(
+            List.of("inventory.orders", "inventory.customers"),
+            List.of("inventory.orders", "Inventory.Customers", "inventory.products")
+        );
+
+        assertThat(added, contains("inventory.products"));
+    }
+
+    @Test
+    void nothingWithoutPreviousList() {
+        assertThat(AbstractDebeziumTask.addedTables(null, List.of("inventory.orders")), empty());
+        assertThat(AbstractDebeziumTask.addedTables(List.of(), List.of("inventory.orders")), empty());
+    }
+
+    @Test
+    void unknownWhenListRemoved() {
+        assertThat(AbstractDebeziumTask.addedTables(List.of("inventory.orders"), null), nullValue());
+    }
+}
@@ -0,0 +1,25 @@
+package io.kestra.plugin.debezium;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TablePatternsTest {
+    @Test
+    void matchesFullIdentifierOrWithoutDatabase() {
+        var patterns = TablePatterns.patterns("public\\.orders, dbo\\.ITEMS");
+
+        assertThat(TablePatterns.matches(patterns, "public.orders"), is(true));
+        assertThat(TablePatterns.matches(patterns, "PUBLIC.ORDERS"), is(true));
+        assertThat(TablePatterns.matches(patterns, "sales.dbo.items"), is(true));
+        assertThat(TablePatterns.matches(patterns, "public.orders_archive"), is(false));
+        assertThat(TablePatterns.matches(patterns, "public.customers"), is(false));
+    }
+
+    @Test
+    void blankListMeansNoFilter() {
+        assertThat(TablePatterns.patterns(null), nullValue());
+        assertThat(TablePatterns.patterns(" "), nullValue());
+    }
+}